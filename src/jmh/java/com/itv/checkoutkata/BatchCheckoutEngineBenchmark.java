@@ -0,0 +1,67 @@
+package com.itv.checkoutkata;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Compare scores across parallelism values to see how the batch scales with cores.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchCheckoutEngineBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"100000"})
+    public int baskets;
+
+    private ForkJoinPool forkJoinPool;
+    private BatchCheckoutEngine batchCheckoutEngine;
+    private List<List<Item>> checkoutBaskets;
+    private PricingCatalog pricingCatalog;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CheckoutTestData checkoutTestData = CheckoutBenchmarkData
+                .basketOf(1000)
+                .spreadOver(100)
+                .withRuleMix("34/33/33")
+                .build();
+
+        List<Item> checkoutItems = checkoutTestData.getCheckoutItems();
+        checkoutBaskets = new ArrayList<>(baskets);
+        for (int basket = 0; basket < baskets; basket++) {
+            checkoutBaskets.add(checkoutItems.subList(0, 1 + basket * 31 % 50));
+        }
+
+        pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        forkJoinPool = new ForkJoinPool(parallelism);
+        batchCheckoutEngine = new BatchCheckoutEngine(forkJoinPool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Benchmark
+    public List<BatchCheckoutResult> checkout() {
+        return batchCheckoutEngine.checkout(checkoutBaskets, pricingCatalog);
+    }
+}
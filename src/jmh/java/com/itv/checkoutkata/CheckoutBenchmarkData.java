@@ -0,0 +1,55 @@
+package com.itv.checkoutkata;
+
+// Builds benchmark fixtures on top of CheckoutTestData, spreading a basket of a given size evenly over a number of
+// distinct SKUs and choosing for each SKU whether its rule is unit-only, exactly multi-priced or mixed.
+public class CheckoutBenchmarkData {
+
+    private final int basketSize;
+    private int distinctSkus = 1;
+    private int exactMultiPricedPercentage;
+    private int mixPricedPercentage;
+
+    private CheckoutBenchmarkData(int basketSize) {
+        this.basketSize = basketSize;
+    }
+
+    public static CheckoutBenchmarkData basketOf(int basketSize) {
+        return new CheckoutBenchmarkData(basketSize);
+    }
+
+    public CheckoutBenchmarkData spreadOver(int distinctSkus) {
+        this.distinctSkus = Math.max(1, Math.min(distinctSkus, basketSize));
+        return this;
+    }
+
+    // ruleMix is "unit/exactMulti/mixed" as percentages, e.g. "34/33/33"
+    public CheckoutBenchmarkData withRuleMix(String ruleMix) {
+        String[] percentages = ruleMix.split("/");
+        this.exactMultiPricedPercentage = Integer.parseInt(percentages[1]);
+        this.mixPricedPercentage = Integer.parseInt(percentages[2]);
+        return this;
+    }
+
+    public CheckoutTestData build() {
+        CheckoutTestData checkoutTestData = new CheckoutTestData();
+
+        for (int sku = 0; sku < distinctSkus; sku++) {
+            int quantity = basketSize / distinctSkus + (sku < basketSize % distinctSkus ? 1 : 0);
+            int bucket = sku * 100 / distinctSkus;
+
+            if (bucket < mixPricedPercentage && quantity > 2) {
+                checkoutTestData.item(skuName(sku), quantity, 0.5, 1.2, quantity - 1);
+            } else if (bucket < mixPricedPercentage + exactMultiPricedPercentage && quantity > 1) {
+                checkoutTestData.item(skuName(sku), quantity, 0.5, 0.4 * quantity, quantity);
+            } else {
+                checkoutTestData.item(skuName(sku), quantity, 0.5, 0.0, 0);
+            }
+        }
+
+        return checkoutTestData;
+    }
+
+    public static String skuName(int sku) {
+        return "SKU-" + sku;
+    }
+}
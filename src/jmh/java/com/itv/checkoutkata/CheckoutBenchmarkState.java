@@ -0,0 +1,45 @@
+package com.itv.checkoutkata;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+
+@State(Scope.Benchmark)
+public class CheckoutBenchmarkState {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int basketSize;
+
+    @Param({"1", "100", "10000"})
+    public int distinctSkus;
+
+    // unit-only / exact multi-price / mixed, in percent
+    @Param({"100/0/0", "0/100/0", "0/0/100", "34/33/33"})
+    public String ruleMix;
+
+    public List<Item> checkoutItems;
+    public Map<Item, Integer> checkoutItemQuantities;
+    public Map<Item, PricingRule> pricingRules;
+    public PricingCatalog pricingCatalog;
+    public int[] scannedSkuIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CheckoutTestData checkoutTestData = CheckoutBenchmarkData
+                .basketOf(basketSize)
+                .spreadOver(distinctSkus)
+                .withRuleMix(ruleMix)
+                .build();
+
+        checkoutItems = checkoutTestData.getCheckoutItems();
+        checkoutItemQuantities = checkoutTestData.getCheckoutItemQuantities();
+        pricingRules = checkoutTestData.getPricingRules();
+        pricingCatalog = PricingCatalog.of(pricingRules);
+        scannedSkuIds = checkoutItems.stream().mapToInt(pricingCatalog::skuIdOf).toArray();
+    }
+}
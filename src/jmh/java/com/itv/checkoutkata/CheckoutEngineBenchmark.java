@@ -0,0 +1,53 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.metrics.RecordingCheckoutMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckoutEngineBenchmark {
+
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+    private final CheckoutEngine meteredCheckoutEngine = new CheckoutEngine(new RecordingCheckoutMetrics());
+
+    @Benchmark
+    public double checkout(CheckoutBenchmarkState state) {
+        return checkoutEngine.checkout(state.checkoutItems, state.pricingRules);
+    }
+
+    @Benchmark
+    public long checkoutInMinorUnits(CheckoutBenchmarkState state) {
+        return checkoutEngine.checkoutInMinorUnits(state.checkoutItems, state.pricingRules);
+    }
+
+    @Benchmark
+    public long checkoutAgainstCatalog(CheckoutBenchmarkState state) {
+        return checkoutEngine.checkoutInMinorUnits(state.checkoutItems, state.pricingCatalog);
+    }
+
+    @Benchmark
+    public long checkoutAgainstCatalogWithMetrics(CheckoutBenchmarkState state) {
+        return meteredCheckoutEngine.checkoutInMinorUnits(state.checkoutItems, state.pricingCatalog);
+    }
+
+    @Benchmark
+    public long checkoutSkuIds(CheckoutBenchmarkState state) {
+        return checkoutEngine.checkoutInMinorUnits(state.scannedSkuIds, state.pricingCatalog);
+    }
+
+    @Benchmark
+    public double checkoutQuantities(CheckoutBenchmarkState state) {
+        return checkoutEngine.checkoutQuantities(state.checkoutItemQuantities, state.pricingRules);
+    }
+}
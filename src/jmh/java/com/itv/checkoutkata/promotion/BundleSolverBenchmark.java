@@ -0,0 +1,106 @@
+package com.itv.checkoutkata.promotion;
+
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.PricingRule;
+import com.itv.checkoutkata.SkuQuantities;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Bundles over skus SKUs with unitsPerSku of each in the basket, overlapping:
+//  disjoint - every bundle pairs two SKUs no other bundle uses, the search is trivially small
+//  chained  - bundle i pairs SKU i with SKU i + 1, so neighbouring bundles compete for units
+//  anything - every component of every bundle accepts every SKU, the worst case for the search
+// Compare maximumSearchSteps values to see where the search gives way to the greedy fallback.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BundleSolverBenchmark {
+
+    @Param({"disjoint", "chained", "anything"})
+    public String overlap;
+
+    @Param({"6"})
+    public int skus;
+
+    @Param({"2", "5", "10"})
+    public int unitsPerSku;
+
+    @Param({"1000", "10000"})
+    public int maximumSearchSteps;
+
+    private BundleSolver bundleSolver;
+    private SkuQuantities skuQuantities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Item> items = new ArrayList<>();
+        Map<Item, PricingRule> pricingRules = new HashMap<>();
+        for (int sku = 0; sku < skus; sku++) {
+            Item item = new Item("SKU-" + sku);
+            items.add(item);
+            pricingRules.put(item, new PricingRule(item, 1.0 + sku * 0.1, 0, 0));
+        }
+
+        PricingCatalog pricingCatalog = PricingCatalog.of(pricingRules);
+        bundleSolver = new BundleSolver(pricingCatalog, bundlesOver(items));
+
+        List<Item> checkoutItems = new ArrayList<>();
+        items.forEach(item -> checkoutItems.addAll(Collections.nCopies(unitsPerSku, item)));
+        skuQuantities = new CheckoutEngine().countAgainst(checkoutItems, pricingCatalog);
+    }
+
+    @Benchmark
+    public BundleAllocation solve() {
+        return bundleSolver.solve(skuQuantities);
+    }
+
+    private List<Bundle> bundlesOver(List<Item> items) {
+        List<Bundle> bundles = new ArrayList<>();
+        Set<Item> anyItem = new HashSet<>(items);
+
+        for (int sku = 0; sku < items.size(); sku++) {
+            Item item = items.get(sku);
+            Item next = items.get((sku + 1) % items.size());
+
+            switch (overlap) {
+                case "disjoint":
+                    if (sku % 2 == 0) {
+                        bundles.add(new Bundle(Arrays.asList(Collections.singleton(item), Collections.singleton(next)), 1.5));
+                    }
+                    break;
+                case "chained":
+                    bundles.add(new Bundle(Arrays.asList(Collections.singleton(item), Collections.singleton(next)), 1.5 + sku * 0.05));
+                    break;
+                case "anything":
+                    bundles.add(new Bundle(Collections.nCopies(2 + sku % 3, anyItem), 1.4 * (2 + sku % 3) - sku * 0.05));
+                    break;
+                default:
+                    throw new IllegalArgumentException(overlap);
+            }
+        }
+
+        return bundles;
+    }
+}
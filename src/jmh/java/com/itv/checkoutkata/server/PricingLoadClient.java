@@ -0,0 +1,149 @@
+package com.itv.checkoutkata.server;
+
+import com.itv.checkoutkata.CheckoutBenchmarkData;
+import com.itv.checkoutkata.CheckoutTestData;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalogHolder;
+import com.itv.checkoutkata.metrics.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Drives a pricing server with concurrent clients for a while and reports latency percentiles and requests/sec.
+// Without a URL, or with "embedded", it starts an embedded server on a synthetic catalog first, so it runs with nothing
+// else up. Its maximum batch size defaults to MicroBatchSettings.DEFAULTS; 1 prices every checkout on its own, to
+// compare batching against unbatched pricing:
+//
+//   PricingLoadClient [threads] [seconds] [url|embedded] [maximumBatchSize]
+public class PricingLoadClient {
+
+    private static final int BASKETS = 1000;
+    private static final String EMBEDDED = "embedded";
+
+    public static void main(String[] args) throws Exception {
+        // see PricingServer; must be set before the embedded server is created
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        CheckoutTestData checkoutTestData = CheckoutBenchmarkData
+                .basketOf(200)
+                .spreadOver(100)
+                .withRuleMix("34/33/33")
+                .build();
+        List<byte[]> baskets = basketsOf(checkoutTestData.getCheckoutItems());
+
+        PricingServer embeddedServer = null;
+        String url;
+        if (args.length > 2 && !EMBEDDED.equals(args[2])) {
+            url = args[2];
+        } else {
+            MicroBatchSettings defaults = MicroBatchSettings.DEFAULTS;
+            MicroBatchSettings microBatchSettings = args.length > 3
+                    ? new MicroBatchSettings(Integer.parseInt(args[3]), defaults.getMaximumWait(), defaults.getMaximumQueuedCheckouts())
+                    : defaults;
+            System.out.println(microBatchSettings);
+            embeddedServer = new PricingServer(new InetSocketAddress("localhost", 0),
+                    new PricingCatalogHolder(checkoutTestData.getPricingRules()), microBatchSettings, threads);
+            embeddedServer.start();
+            url = "http://localhost:" + embeddedServer.getPort() + PricingServer.CHECKOUT_PATH;
+        }
+
+        try {
+            report(threads, seconds, drive(new URL(url), baskets, threads, seconds));
+        } finally {
+            if (embeddedServer != null) {
+                embeddedServer.close();
+            }
+        }
+    }
+
+    private static LoadResult drive(URL url, List<byte[]> baskets, int threads, int seconds) throws InterruptedException {
+        LoadResult loadResult = new LoadResult();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+
+        for (int client = 0; client < threads; client++) {
+            int firstBasket = client;
+            clients.execute(() -> {
+                for (int request = firstBasket; System.nanoTime() < deadline; request += threads) {
+                    long started = System.nanoTime();
+                    int status = post(url, baskets.get(request % baskets.size()));
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+
+                    if (status == 200) {
+                        loadResult.latencyMicros.record(latencyMicros);
+                    } else {
+                        loadResult.rejected.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        clients.shutdown();
+        clients.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+        return loadResult;
+    }
+
+    private static int post(URL url, byte[] basket) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            try (OutputStream requestBody = connection.getOutputStream()) {
+                requestBody.write(basket);
+            }
+
+            int status = connection.getResponseCode();
+            try (InputStream responseBody = status == 200 ? connection.getInputStream() : connection.getErrorStream()) {
+                while (responseBody != null && responseBody.read() != -1) {
+                    // drain the body so the connection is kept alive and reused
+                }
+            }
+            return status;
+        } catch (IOException failure) {
+            return -1;
+        }
+    }
+
+    private static void report(int threads, int seconds, LoadResult loadResult) {
+        Histogram latencyMicros = loadResult.latencyMicros;
+        System.out.printf("threads=%d seconds=%d requests=%d rejected=%d%n",
+                threads, seconds, latencyMicros.count(), loadResult.rejected.get());
+        System.out.printf("requests/sec=%.1f%n", (double) latencyMicros.count() / seconds);
+        System.out.printf("latency p50=%dus p99=%dus p99.9=%dus max=%dus%n",
+                latencyMicros.percentile(50), latencyMicros.percentile(99), latencyMicros.percentile(99.9), latencyMicros.max());
+    }
+
+    // baskets of 1 to 50 items taken from the synthetic checkout, as request bodies of one item name per line
+    private static List<byte[]> basketsOf(List<Item> checkoutItems) {
+        List<byte[]> baskets = new ArrayList<>(BASKETS);
+        for (int basket = 0; basket < BASKETS; basket++) {
+            int from = basket % (checkoutItems.size() - 50);
+            String body = checkoutItems.subList(from, from + 1 + basket * 31 % 50).stream()
+                    .map(Item::getName)
+                    .collect(Collectors.joining("\n"));
+            baskets.add(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return baskets;
+    }
+
+    private static final class LoadResult {
+
+        private final Histogram latencyMicros = new Histogram();
+        private final AtomicLong rejected = new AtomicLong();
+    }
+}
@@ -0,0 +1,237 @@
+package com.itv.checkoutkata.soak;
+
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.metrics.Histogram;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Drives CheckoutEngine from N threads with a synthetic workload, first for warmupSeconds and then for seconds, and
+// reports checkouts/sec, checkout latency percentiles, the GC pauses and the heap high-water mark of the measured run.
+// With a minimumThroughput or maximumP99Micros it also checks them and exits with 1 when one is missed, so a build
+// can run it as a soak test:
+//
+//   CheckoutSoakHarness [name=value ...]    see SoakSettings for the names
+public class CheckoutSoakHarness {
+
+    public static void main(String[] args) throws InterruptedException {
+        SoakSettings soakSettings = SoakSettings.fromArguments(args);
+        SyntheticWorkload syntheticWorkload = SyntheticWorkload.of(soakSettings);
+        System.out.printf("%s%nbaskets=%d averageBasketSize=%.1f%n",
+                soakSettings, syntheticWorkload.baskets(), syntheticWorkload.averageBasketSize());
+
+        drive(syntheticWorkload, soakSettings.getThreads(), soakSettings.getWarmupSeconds());
+
+        GcPauses gcPauses = GcPauses.start();
+        resetHeapPeaks();
+        RunResult runResult = drive(syntheticWorkload, soakSettings.getThreads(), soakSettings.getSeconds());
+        gcPauses.stop();
+
+        boolean passed = report(soakSettings, runResult, gcPauses);
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    private static RunResult drive(SyntheticWorkload syntheticWorkload, int threads, int seconds) throws InterruptedException {
+        PricingCatalog pricingCatalog = syntheticWorkload.getPricingCatalog();
+        Histogram[] latencyNanos = new Histogram[threads];
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+
+        for (int thread = 0; thread < threads; thread++) {
+            int firstBasket = thread;
+            Histogram threadLatencyNanos = latencyNanos[thread] = new Histogram();
+            Thread checkoutThread = new Thread(() -> {
+                CheckoutEngine checkoutEngine = new CheckoutEngine();
+                long checksum = 0;
+                try {
+                    started.await();
+                    for (int basket = firstBasket; System.nanoTime() < deadline[0]; basket += threads) {
+                        long checkoutStarted = System.nanoTime();
+                        checksum += checkoutEngine.checkoutInMinorUnits(syntheticWorkload.basket(basket), pricingCatalog);
+                        threadLatencyNanos.record(System.nanoTime() - checkoutStarted);
+                    }
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    // keeps the totals observable so the checkouts cannot be optimised away
+                    if (checksum == Long.MIN_VALUE) {
+                        System.out.println(checksum);
+                    }
+                    finished.countDown();
+                }
+            }, "soak-checkout-" + thread);
+            checkoutThread.setDaemon(true);
+            checkoutThread.start();
+        }
+
+        long runStarted = System.nanoTime();
+        deadline[0] = runStarted + TimeUnit.SECONDS.toNanos(seconds);
+        started.countDown();
+        finished.await();
+        long elapsedNanos = System.nanoTime() - runStarted;
+
+        Histogram mergedLatencyNanos = new Histogram();
+        for (Histogram threadLatencyNanos : latencyNanos) {
+            mergedLatencyNanos.add(threadLatencyNanos);
+        }
+        return new RunResult(mergedLatencyNanos, elapsedNanos);
+    }
+
+    private static boolean report(SoakSettings soakSettings, RunResult runResult, GcPauses gcPauses) {
+        Histogram latencyNanos = runResult.latencyNanos;
+        double throughput = latencyNanos.count() / (runResult.elapsedNanos / 1e9);
+        long p99Micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos.percentile(99));
+
+        System.out.printf("checkouts=%d checkouts/sec=%.0f%n", latencyNanos.count(), throughput);
+        System.out.printf("latency p50=%dns p90=%dns p99=%dns p99.9=%dns p99.99=%dns max=%dns%n",
+                latencyNanos.percentile(50), latencyNanos.percentile(90), latencyNanos.percentile(99),
+                latencyNanos.percentile(99.9), latencyNanos.percentile(99.99), latencyNanos.max());
+        gcPauses.report();
+        reportHeapPeaks();
+
+        if (!soakSettings.hasThresholds()) {
+            return true;
+        }
+
+        boolean passed = true;
+        if (soakSettings.getMinimumThroughput() > 0 && throughput < soakSettings.getMinimumThroughput()) {
+            System.out.printf("FAIL checkouts/sec %.0f is below the minimum of %.0f%n", throughput, soakSettings.getMinimumThroughput());
+            passed = false;
+        }
+        if (soakSettings.getMaximumP99Micros() > 0 && p99Micros > soakSettings.getMaximumP99Micros()) {
+            System.out.printf("FAIL p99 latency %dus is above the maximum of %dus%n", p99Micros, soakSettings.getMaximumP99Micros());
+            passed = false;
+        }
+        if (passed) {
+            System.out.println("PASS");
+        }
+        return passed;
+    }
+
+    private static void resetHeapPeaks() {
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP) {
+                memoryPool.resetPeakUsage();
+            }
+        }
+    }
+
+    // pools peak at different times, so their sum is an upper bound of the heap high-water mark
+    private static void reportHeapPeaks() {
+        long peakBytes = 0;
+        StringBuilder poolPeaks = new StringBuilder();
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP) {
+                long poolPeakBytes = memoryPool.getPeakUsage().getUsed();
+                peakBytes += poolPeakBytes;
+                poolPeaks.append(String.format(" %s=%dMB", memoryPool.getName().replace(' ', '_'), poolPeakBytes >> 20));
+            }
+        }
+        System.out.printf("heap peak=%dMB%s%n", peakBytes >> 20, poolPeaks);
+    }
+
+    private static final class RunResult {
+
+        private final Histogram latencyNanos;
+        private final long elapsedNanos;
+
+        private RunResult(Histogram latencyNanos, long elapsedNanos) {
+            this.latencyNanos = latencyNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+
+    // Counts and times the collections of every collector over the run and records each pause as the collector
+    // notifies it, as the bean totals alone cannot tell one long pause from many short ones.
+    //
+    // A notification's duration is the whole collection, which for a concurrent cycle, e.g. of CMS, ZGC or
+    // Shenandoah, is mostly time the application kept running. Those are kept apart as concurrent cycles, so the
+    // pauses are only collections that stop the world. Even so, a cycle's own short pauses are not broken out of it.
+    private static final class GcPauses implements NotificationListener {
+
+        private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        private final long[] startCounts = new long[collectors.size()];
+        private final long[] startMillis = new long[collectors.size()];
+        private final long[] counts = new long[collectors.size()];
+        private final long[] millis = new long[collectors.size()];
+        private final Histogram pauseMillis = new Histogram();
+        private final Histogram concurrentCycleMillis = new Histogram();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+
+        static GcPauses start() {
+            GcPauses gcPauses = new GcPauses();
+            for (int collector = 0; collector < gcPauses.collectors.size(); collector++) {
+                GarbageCollectorMXBean garbageCollector = gcPauses.collectors.get(collector);
+                gcPauses.startCounts[collector] = garbageCollector.getCollectionCount();
+                gcPauses.startMillis[collector] = garbageCollector.getCollectionTime();
+                if (garbageCollector instanceof NotificationEmitter) {
+                    ((NotificationEmitter) garbageCollector).addNotificationListener(gcPauses, null, null);
+                    gcPauses.emitters.add((NotificationEmitter) garbageCollector);
+                }
+            }
+            return gcPauses;
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo collection =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                Histogram collectionMillis = isConcurrentCycle(collection) ? concurrentCycleMillis : pauseMillis;
+                collectionMillis.record(collection.getGcInfo().getDuration());
+            }
+        }
+
+        // by the names the JDK's collectors give their concurrent beans and actions, e.g. "ConcurrentMarkSweep",
+        // "ZGC Cycles" or "end of GC cycle", as against "end of minor GC", "end of major GC" and "end of GC pause"
+        private static boolean isConcurrentCycle(GarbageCollectionNotificationInfo collection) {
+            String gcName = collection.getGcName();
+            String gcAction = collection.getGcAction();
+            return gcName.contains("Concurrent") || gcName.contains("Cycles")
+                    || gcAction.contains("concurrent") || gcAction.contains("cycle");
+        }
+
+        void stop() {
+            for (int collector = 0; collector < collectors.size(); collector++) {
+                counts[collector] = collectors.get(collector).getCollectionCount() - startCounts[collector];
+                millis[collector] = collectors.get(collector).getCollectionTime() - startMillis[collector];
+            }
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (ListenerNotFoundException alreadyRemoved) {
+                    // nothing to stop listening to
+                }
+            }
+        }
+
+        void report() {
+            for (int collector = 0; collector < collectors.size(); collector++) {
+                System.out.printf("gc %s collections=%d time=%dms%n",
+                        collectors.get(collector).getName(), counts[collector], millis[collector]);
+            }
+            System.out.printf("gc pauses=%d p50=%dms p99=%dms max=%dms%n",
+                    pauseMillis.count(), pauseMillis.percentile(50), pauseMillis.percentile(99), pauseMillis.max());
+            if (concurrentCycleMillis.count() > 0) {
+                System.out.printf("gc concurrent cycles=%d p50=%dms p99=%dms max=%dms%n", concurrentCycleMillis.count(),
+                        concurrentCycleMillis.percentile(50), concurrentCycleMillis.percentile(99), concurrentCycleMillis.max());
+            }
+        }
+    }
+}
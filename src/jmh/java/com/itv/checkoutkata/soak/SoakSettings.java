@@ -0,0 +1,59 @@
+package com.itv.checkoutkata.soak;
+
+import lombok.Data;
+
+// The settings of a soak run, each overridable with a name=value argument, e.g. threads=8 seconds=300 skus=50000.
+// minimumThroughput (checkouts/sec) and maximumP99Micros are thresholds: 0 means not checked, anything else makes
+// the run fail when it is not met.
+@Data
+public class SoakSettings {
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int seconds = 30;
+    private int warmupSeconds = 10;
+
+    private int skus = 10_000;
+    private double zipfExponent = 1.0;
+    private int medianBasketSize = 12;
+    private int maximumBasketSize = 200;
+    private int multiPricedPercentage = 30;
+    private int baskets = 10_000;
+    private long seed = 42;
+
+    private double minimumThroughput;
+    private long maximumP99Micros;
+
+    public static SoakSettings fromArguments(String... arguments) {
+        SoakSettings soakSettings = new SoakSettings();
+        for (String argument : arguments) {
+            String[] nameAndValue = argument.split("=", 2);
+            if (nameAndValue.length != 2) {
+                throw new IllegalArgumentException("Expected name=value but got: " + argument);
+            }
+            soakSettings.set(nameAndValue[0], nameAndValue[1]);
+        }
+        return soakSettings;
+    }
+
+    public boolean hasThresholds() {
+        return minimumThroughput > 0 || maximumP99Micros > 0;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "threads": threads = Integer.parseInt(value); break;
+            case "seconds": seconds = Integer.parseInt(value); break;
+            case "warmupSeconds": warmupSeconds = Integer.parseInt(value); break;
+            case "skus": skus = Integer.parseInt(value); break;
+            case "zipfExponent": zipfExponent = Double.parseDouble(value); break;
+            case "medianBasketSize": medianBasketSize = Integer.parseInt(value); break;
+            case "maximumBasketSize": maximumBasketSize = Integer.parseInt(value); break;
+            case "multiPricedPercentage": multiPricedPercentage = Integer.parseInt(value); break;
+            case "baskets": baskets = Integer.parseInt(value); break;
+            case "seed": seed = Long.parseLong(value); break;
+            case "minimumThroughput": minimumThroughput = Double.parseDouble(value); break;
+            case "maximumP99Micros": maximumP99Micros = Long.parseLong(value); break;
+            default: throw new IllegalArgumentException("Unknown soak setting: " + name);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.itv.checkoutkata.soak;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.PricingRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.itv.checkoutkata.CheckoutBenchmarkData.skuName;
+
+// A synthetic catalog and a pool of baskets drawn from it the way real traffic is shaped: a few SKUs are in most
+// baskets and there is a long tail of rarely bought ones (Zipf-distributed popularity), most baskets are small but
+// some are very large (log-normal basket sizes), and a given share of the SKUs are on multi-price deals.
+//
+// Everything is drawn from a seeded Random, so the same settings always give the same workload.
+public class SyntheticWorkload {
+
+    private static final double BASKET_SIZE_SIGMA = 0.8;
+
+    private final PricingCatalog pricingCatalog;
+    private final List<List<Item>> baskets;
+    private final long scannedItems;
+
+    private SyntheticWorkload(PricingCatalog pricingCatalog, List<List<Item>> baskets) {
+        this.pricingCatalog = pricingCatalog;
+        this.baskets = baskets;
+        this.scannedItems = baskets.stream().mapToLong(List::size).sum();
+    }
+
+    public static SyntheticWorkload of(SoakSettings soakSettings) {
+        Random random = new Random(soakSettings.getSeed());
+        List<Item> items = new ArrayList<>(soakSettings.getSkus());
+        Map<Item, PricingRule> pricingRules = new HashMap<>();
+
+        for (int sku = 0; sku < soakSettings.getSkus(); sku++) {
+            Item item = new Item(skuName(sku));
+            items.add(item);
+            pricingRules.put(item, pricingRuleFor(item, random, soakSettings.getMultiPricedPercentage()));
+        }
+        // popularity rank is independent of the SKU number, so the popular SKUs are not all unit or all multi-priced
+        Collections.shuffle(items, random);
+
+        double[] cumulativePopularity = zipfCumulativePopularity(items.size(), soakSettings.getZipfExponent());
+        List<List<Item>> baskets = new ArrayList<>(soakSettings.getBaskets());
+        for (int basket = 0; basket < soakSettings.getBaskets(); basket++) {
+            int basketSize = basketSize(random, soakSettings.getMedianBasketSize(), soakSettings.getMaximumBasketSize());
+            List<Item> basketItems = new ArrayList<>(basketSize);
+            for (int scan = 0; scan < basketSize; scan++) {
+                basketItems.add(items.get(popularityRankOf(random.nextDouble(), cumulativePopularity)));
+            }
+            baskets.add(basketItems);
+        }
+
+        return new SyntheticWorkload(PricingCatalog.of(pricingRules), baskets);
+    }
+
+    public PricingCatalog getPricingCatalog() {
+        return pricingCatalog;
+    }
+
+    public List<Item> basket(int index) {
+        return baskets.get(index % baskets.size());
+    }
+
+    public int baskets() {
+        return baskets.size();
+    }
+
+    public double averageBasketSize() {
+        return (double) scannedItems / baskets.size();
+    }
+
+    // unit prices from 0.10 to 9.99; deals of 2 to 5 units at 10% to 40% off
+    private static PricingRule pricingRuleFor(Item item, Random random, int multiPricedPercentage) {
+        double unitPrice = (10 + random.nextInt(990)) / 100.0;
+        if (random.nextInt(100) >= multiPricedPercentage) {
+            return new PricingRule(item, unitPrice, 0.0, 0);
+        }
+
+        int multiPricedQuantity = 2 + random.nextInt(4);
+        double discount = (10 + random.nextInt(31)) / 100.0;
+        double multiPrice = Math.round(unitPrice * multiPricedQuantity * (1 - discount) * 100) / 100.0;
+        return new PricingRule(item, unitPrice, multiPrice, multiPricedQuantity);
+    }
+
+    // P(rank k) is proportional to 1 / (k + 1)^exponent
+    private static double[] zipfCumulativePopularity(int skus, double exponent) {
+        double[] cumulativePopularity = new double[skus];
+        double total = 0;
+        for (int rank = 0; rank < skus; rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulativePopularity[rank] = total;
+        }
+        for (int rank = 0; rank < skus; rank++) {
+            cumulativePopularity[rank] /= total;
+        }
+        return cumulativePopularity;
+    }
+
+    private static int popularityRankOf(double uniform, double[] cumulativePopularity) {
+        int rank = Arrays.binarySearch(cumulativePopularity, uniform);
+        return Math.min(rank >= 0 ? rank : -rank - 1, cumulativePopularity.length - 1);
+    }
+
+    private static int basketSize(Random random, int medianBasketSize, int maximumBasketSize) {
+        double basketSize = medianBasketSize * Math.exp(BASKET_SIZE_SIGMA * random.nextGaussian());
+        return (int) Math.max(1, Math.min(maximumBasketSize, Math.round(basketSize)));
+    }
+}
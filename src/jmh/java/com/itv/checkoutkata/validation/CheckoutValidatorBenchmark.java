@@ -0,0 +1,27 @@
+package com.itv.checkoutkata.validation;
+
+import com.itv.checkoutkata.CheckoutBenchmarkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CheckoutValidatorBenchmark {
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+
+    @Benchmark
+    public void validate(CheckoutBenchmarkState state) {
+        checkoutValidator.validate(state.checkoutItems, state.pricingRules);
+    }
+}
@@ -0,0 +1,124 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.Map;
+
+// A basket that is priced as it is scanned, so that a running total costs O(1) per scan
+// rather than a full checkout of everything scanned so far.
+public class Basket {
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+
+    private final SkuQuantities skuQuantities = new SkuQuantities();
+
+    // while open, a basket prices against the current catalog of its OpenBaskets, which keeps its total up to date
+    private OpenBaskets openBaskets;
+    private PricingCatalog pricingCatalog;
+
+    private long totalInMinorUnits;
+
+    public Basket(Map<Item, PricingRule> pricingRules) {
+        this(PricingCatalog.of(pricingRules));
+    }
+
+    public Basket(PricingCatalog pricingCatalog) {
+        checkoutValidator.validateForMissingPricingCatalog(pricingCatalog);
+        this.pricingCatalog = pricingCatalog;
+    }
+
+    Basket(OpenBaskets openBaskets) {
+        this.openBaskets = openBaskets;
+    }
+
+    public double scan(Item item) {
+        return scan(pricingCatalog().requireSkuIdOf(item));
+    }
+
+    public double scan(int skuId) {
+        int previousQuantity = skuQuantities.quantityOf(skuId);
+
+        // reprice first, it explodes for SKUs without a rule before the basket is touched
+        reprice(skuId, previousQuantity, previousQuantity + 1);
+        skuQuantities.add(skuId, 1);
+
+        if (previousQuantity == 0 && openBaskets != null) {
+            openBaskets.track(skuId, this);
+        }
+
+        return total();
+    }
+
+    public double remove(Item item) {
+        return remove(pricingCatalog().skuIdOf(item));
+    }
+
+    public double remove(int skuId) {
+        checkoutValidator.validateSkuIsInBasket(skuId, skuQuantities);
+
+        int newQuantity = skuQuantities.add(skuId, -1);
+        reprice(skuId, newQuantity + 1, newQuantity);
+
+        if (newQuantity == 0 && openBaskets != null) {
+            openBaskets.untrack(skuId, this);
+        }
+
+        return total();
+    }
+
+    public double total() {
+        return Money.toMajorUnits(totalInMinorUnits);
+    }
+
+    public long totalInMinorUnits() {
+        return totalInMinorUnits;
+    }
+
+    public int quantityOf(Item item) {
+        return quantityOf(pricingCatalog().skuIdOf(item));
+    }
+
+    public int quantityOf(int skuId) {
+        return skuId == SkuRegistry.UNKNOWN_SKU ? 0 : skuQuantities.quantityOf(skuId);
+    }
+
+    public boolean isEmpty() {
+        return skuQuantities.isEmpty();
+    }
+
+    // the subtotal of a SKU is its price under the catalog it was last priced against, so a changed rule only
+    // moves the total by the difference between the two catalogs' prices for the quantity held
+    void reprice(int skuId, PricingCatalog previousCatalog, PricingCatalog newCatalog) {
+        int quantity = skuQuantities.quantityOf(skuId);
+        totalInMinorUnits += priceFor(newCatalog, skuId, quantity) - priceFor(previousCatalog, skuId, quantity);
+    }
+
+    void close() {
+        if (openBaskets == null) {
+            return;
+        }
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                openBaskets.untrack(skuId, this);
+            }
+        }
+
+        pricingCatalog = openBaskets.current();
+        openBaskets = null;
+    }
+
+    private void reprice(int skuId, int previousQuantity, int newQuantity) {
+        PricingCatalog pricingCatalog = pricingCatalog();
+        totalInMinorUnits += priceFor(pricingCatalog, skuId, newQuantity) - priceFor(pricingCatalog, skuId, previousQuantity);
+    }
+
+    private PricingCatalog pricingCatalog() {
+        return openBaskets == null ? pricingCatalog : openBaskets.current();
+    }
+
+    private static long priceFor(PricingCatalog pricingCatalog, int skuId, int quantity) {
+        return quantity == 0 ? 0 : pricingCatalog.priceInMinorUnits(skuId, quantity);
+    }
+}
@@ -0,0 +1,32 @@
+package com.itv.checkoutkata;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Arrays;
+
+// A canonical key for a basket: the catalog version it is priced against plus its (skuId, quantity) pairs packed into
+// longs and sorted by SKU id, so that the same items scanned in any order give equal signatures.
+@Data
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BasketSignature {
+
+    private final long catalogVersion;
+    private final long[] skuQuantities;
+
+    public static BasketSignature of(long catalogVersion, SkuQuantities skuQuantities) {
+        long[] packedSkuQuantities = new long[skuQuantities.distinctSkus()];
+        int next = 0;
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                packedSkuQuantities[next++] = (long) skuId << 32 | skuQuantities.quantityAt(slot) & 0xFFFFFFFFL;
+            }
+        }
+
+        Arrays.sort(packedSkuQuantities);
+        return new BasketSignature(catalogVersion, packedSkuQuantities);
+    }
+}
@@ -0,0 +1,54 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Re-prices many baskets against one shared catalog, spread over the workers of a fork/join pool. The catalog is
+// validated once for the whole batch, results come back in the order of the baskets, and a basket that can not be
+// priced is reported in its own result instead of failing the batch.
+public class BatchCheckoutEngine {
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+
+    private final ForkJoinPool forkJoinPool;
+
+    public BatchCheckoutEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchCheckoutEngine(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    public List<BatchCheckoutResult> checkout(List<List<Item>> baskets, Map<Item, PricingRule> pricingRules) {
+        checkoutValidator.validateForMissingBaskets(baskets);
+        return checkout(baskets, PricingCatalog.of(pricingRules));
+    }
+
+    public List<BatchCheckoutResult> checkout(List<List<Item>> baskets, PricingCatalog pricingCatalog) {
+
+        checkoutValidator.validateForMissingBaskets(baskets);
+        checkoutValidator.validateForMissingPricingCatalog(pricingCatalog);
+
+        // a parallel stream started from inside the pool runs on that pool's workers rather than the common pool
+        return forkJoinPool.submit(() -> IntStream.range(0, baskets.size())
+                .parallel()
+                .mapToObj(basket -> checkoutBasket(baskets.get(basket), pricingCatalog))
+                .collect(Collectors.toList()))
+                .join();
+    }
+
+    private BatchCheckoutResult checkoutBasket(List<Item> basket, PricingCatalog pricingCatalog) {
+        try {
+            return BatchCheckoutResult.priced(checkoutEngine.checkoutAgainst(basket, pricingCatalog));
+        } catch (RuntimeException failure) {
+            return BatchCheckoutResult.failed(failure);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.itv.checkoutkata;
+
+import lombok.Data;
+
+// The outcome of one basket in a batch: either its checkout result or the reason it could not be priced.
+@Data
+public class BatchCheckoutResult {
+
+    private final CheckoutResult checkoutResult;
+    private final RuntimeException failure;
+
+    public static BatchCheckoutResult priced(CheckoutResult checkoutResult) {
+        return new BatchCheckoutResult(checkoutResult, null);
+    }
+
+    public static BatchCheckoutResult failed(RuntimeException failure) {
+        return new BatchCheckoutResult(null, failure);
+    }
+
+    public boolean isPriced() {
+        return failure == null;
+    }
+}
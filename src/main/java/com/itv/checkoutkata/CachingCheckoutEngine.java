@@ -0,0 +1,58 @@
+package com.itv.checkoutkata;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.List;
+
+// Sits in front of the CheckoutEngine for traffic that keeps checking out the same small baskets. Results are kept
+// in a size-bounded, least-recently-used cache keyed by the basket's signature, which includes the catalog version,
+// so a result is never served once different rules are being priced against.
+public class CachingCheckoutEngine {
+
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+
+    private final Cache<BasketSignature, CheckoutResult> checkoutResults;
+
+    public CachingCheckoutEngine(long maximumCachedBaskets) {
+        this.checkoutResults = CacheBuilder.newBuilder()
+                .maximumSize(maximumCachedBaskets)
+                .recordStats()
+                .build();
+    }
+
+    public CheckoutResult checkoutAgainst(List<Item> checkoutItems, PricingCatalogHolder pricingCatalogHolder) {
+        return checkoutAgainst(checkoutItems, pricingCatalogHolder.current());
+    }
+
+    public CheckoutResult checkoutAgainst(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        return checkout(checkoutEngine.countAgainst(checkoutItems, pricingCatalog), pricingCatalog);
+    }
+
+    public CheckoutResult checkoutAgainst(int[] scannedSkuIds, PricingCatalog pricingCatalog) {
+        return checkout(checkoutEngine.countAgainst(scannedSkuIds, pricingCatalog), pricingCatalog);
+    }
+
+    // hits, misses and evictions so far
+    public CacheStats stats() {
+        return checkoutResults.stats();
+    }
+
+    public long size() {
+        return checkoutResults.size();
+    }
+
+    private CheckoutResult checkout(SkuQuantities skuQuantities, PricingCatalog pricingCatalog) {
+        BasketSignature basketSignature = BasketSignature.of(pricingCatalog.getVersion(), skuQuantities);
+
+        CheckoutResult checkoutResult = checkoutResults.getIfPresent(basketSignature);
+        if (checkoutResult == null) {
+            // total only, so cached results do not keep superseded catalogs reachable
+            checkoutResult = new CheckoutResult(pricingCatalog.priceInMinorUnits(skuQuantities), pricingCatalog.getVersion());
+            checkoutResults.put(basketSignature, checkoutResult);
+        }
+
+        return checkoutResult;
+    }
+}
@@ -1,112 +1,386 @@
 package com.itv.checkoutkata;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.itv.checkoutkata.io.MappedPricingCatalog;
+import com.itv.checkoutkata.metrics.CheckoutMetrics;
+import com.itv.checkoutkata.metrics.CheckoutPhase;
+import com.itv.checkoutkata.metrics.PricingPath;
+import com.itv.checkoutkata.promotion.BundleAllocation;
+import com.itv.checkoutkata.promotion.BundleSolver;
+import com.itv.checkoutkata.promotion.PromotionCatalog;
 import com.itv.checkoutkata.validation.CheckoutValidator;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
+
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static com.itv.checkoutkata.metrics.CheckoutPhase.GROUPING;
+import static com.itv.checkoutkata.metrics.CheckoutPhase.PRICING;
+import static com.itv.checkoutkata.metrics.CheckoutPhase.VALIDATION;
 
 public class CheckoutEngine {
 
     private CheckoutValidator checkoutValidator = new CheckoutValidator();
 
+    // metrics are opt in; while disabled every probe below is a single, always-false branch
+    private final CheckoutMetrics checkoutMetrics;
+    private final boolean metricsEnabled;
+
+    public CheckoutEngine() {
+        this(CheckoutMetrics.NONE);
+    }
+
+    public CheckoutEngine(CheckoutMetrics checkoutMetrics) {
+        this.checkoutMetrics = checkoutMetrics;
+        this.metricsEnabled = checkoutMetrics != CheckoutMetrics.NONE;
+    }
+
     public double checkout(List<Item> checkoutItems, Map<Item, PricingRule> pricingRules) {
+        return Money.toMajorUnits(checkoutInMinorUnits(checkoutItems, pricingRules));
+    }
+
+    public long checkoutInMinorUnits(List<Item> checkoutItems, Map<Item, PricingRule> pricingRules) {
+
+        long phaseStarted = startPhase();
+        checkoutValidator.validateBeforeCounting(checkoutItems, pricingRules);
+        phaseStarted = endPhase(VALIDATION, phaseStarted);
+
+        // one pass to count every item, then one rule lookup per distinct item, which also finds the unpriced ones
+        Multiset<Item> checkoutItemQuantities = HashMultiset.create(checkoutItems);
+        phaseStarted = endPhase(GROUPING, phaseStarted);
+
+        long totalPrice = 0;
+        Set<Item> unpricedItems = null;
+
+        for (Multiset.Entry<Item> checkoutItemQuantity : checkoutItemQuantities.entrySet()) {
+            PricingRule pricingRule = pricingRules.get(checkoutItemQuantity.getElement());
+            if (pricingRule == null) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, checkoutItemQuantity.getElement());
+                continue;
+            }
+            totalPrice += pricingRule.priceInMinorUnitsFor(checkoutItemQuantity.getCount());
+
+            if (metricsEnabled) {
+                checkoutMetrics.recordPricingPath(PricingPath.of(pricingRule, checkoutItemQuantity.getCount()));
+            }
+        }
+
+        checkoutValidator.validateNoUnpricedItems(unpricedItems);
+        endPhase(PRICING, phaseStarted);
+        recordBasketSize(checkoutItems.size());
+
+        return totalPrice;
+    }
+
+    // Against a catalog that was validated when it was built, so only the rule of each distinct item is looked up.
+    public long checkoutInMinorUnits(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        return priceAgainst(countAgainst(checkoutItems, pricingCatalog), pricingCatalog);
+    }
+
+    // Against a memory-mapped catalog file, every distinct item's price is read straight from the mapped rule.
+    public long checkoutInMinorUnits(List<Item> checkoutItems, MappedPricingCatalog mappedPricingCatalog) {
+
+        checkoutValidator.validateAgainstMappedCatalog(checkoutItems, mappedPricingCatalog);
+
+        Multiset<Item> checkoutItemQuantities = HashMultiset.create(checkoutItems);
+
+        long totalPrice = 0;
+        Set<Item> unpricedItems = null;
+
+        for (Multiset.Entry<Item> checkoutItemQuantity : checkoutItemQuantities.entrySet()) {
+            long price = mappedPricingCatalog.priceInMinorUnitsIfPriced(checkoutItemQuantity.getElement(), checkoutItemQuantity.getCount());
+            if (price == MappedPricingCatalog.UNPRICED) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, checkoutItemQuantity.getElement());
+                continue;
+            }
+            totalPrice += price;
+        }
+
+        checkoutValidator.validateNoUnpricedItems(unpricedItems);
+        return totalPrice;
+    }
+
+    // Promotions are looked up per distinct SKU in the basket, so their number does not show in the cost of a checkout.
+    public long checkoutInMinorUnits(List<Item> checkoutItems, PromotionCatalog promotionCatalog) {
+        if (promotionCatalog == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+
+        SkuQuantities skuQuantities = countAgainst(checkoutItems, promotionCatalog.getPricingCatalog());
+
+        long phaseStarted = startPhase();
+        long totalPrice = promotionCatalog.priceInMinorUnits(skuQuantities);
+        endPhase(PRICING, phaseStarted);
+
+        return totalPrice;
+    }
+
+    // Splits the basket into whichever bundles and individually priced units come out cheapest for the customer.
+    public BundleAllocation checkoutWithBundles(List<Item> checkoutItems, BundleSolver bundleSolver) {
+        if (bundleSolver == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+
+        SkuQuantities skuQuantities = countAgainst(checkoutItems, bundleSolver.getPricingCatalog());
+
+        long phaseStarted = startPhase();
+        BundleAllocation bundleAllocation = bundleSolver.solve(skuQuantities);
+        endPhase(PRICING, phaseStarted);
+
+        return bundleAllocation;
+    }
+
+    // Prices with the rules in force at the given instant, which may be now or any time in the past or future.
+    public long checkoutInMinorUnits(List<Item> checkoutItems, ScheduledPricingCatalog scheduledPricingCatalog, Instant pricedAt) {
+
+        long phaseStarted = startPhase();
+
+        checkoutValidator.validateAgainstScheduledCatalog(checkoutItems, scheduledPricingCatalog, pricedAt);
+
+        phaseStarted = endPhase(VALIDATION, phaseStarted);
+
+        SkuQuantities skuQuantities = new SkuQuantities();
+        Set<Item> unpricedItems = null;
+
+        for (Item checkoutItem : checkoutItems) {
+            int skuId = scheduledPricingCatalog.skuIdOf(checkoutItem);
+            if (skuId == SkuRegistry.UNKNOWN_SKU) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, checkoutItem);
+            } else {
+                skuQuantities.add(skuId, 1);
+            }
+        }
 
-        checkoutValidator.validate(checkoutItems, pricingRules);
+        phaseStarted = endPhase(GROUPING, phaseStarted);
 
-        Map<String, List<Item>> groupedCheckoutItems = checkoutItems
-                .stream()
-                .collect(Collectors.groupingBy(Item::getName));
+        // an item can be known to the catalog and still have no rule at the instant, e.g. before its first window opens
+        long totalPrice = 0;
 
-        Set<PricingRule> applicablePricingRules = Sets.newHashSet(checkoutItems)
-                .stream()
-                .map(item -> pricingRules.get(item))
-                .collect(Collectors.toSet());
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId == SkuQuantities.NO_SKU) {
+                continue;
+            }
+            PricingRule pricingRule = scheduledPricingCatalog.ruleFor(skuId, pricedAt);
+            if (pricingRule == null) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, scheduledPricingCatalog.itemOf(skuId));
+            } else {
+                totalPrice += pricingRule.priceInMinorUnitsFor(skuQuantities.quantityAt(slot));
+            }
+        }
 
-        double unitPricedItemsSubTotal = applicablePricingRules
-                .stream()
-                .filter(unitPriceIsApplicable(groupedCheckoutItems))
-                .map(unitPriceBasedCalculation(groupedCheckoutItems))
-                .mapToDouble(Double::new).sum();
+        checkoutValidator.validateNoUnpricedItems(unpricedItems);
 
-        double multiPricedItemsSubTotal = applicablePricingRules
-                .stream()
-                .filter(multiPriceIsApplicable(groupedCheckoutItems))
-                .map(multiPriceBasedCalculation())
-                .mapToDouble(Double::new).sum();
+        endPhase(PRICING, phaseStarted);
+        recordBasketSize(checkoutItems.size());
 
-        double mixPricedItemsSubTotal = applicablePricingRules
-                .stream()
-                .filter(mixPricesAreApplicable(groupedCheckoutItems))
-                .map(mixPriceBasedCalculation(groupedCheckoutItems))
-                .mapToDouble(Double::new).sum();
+        return totalPrice;
+    }
 
-        return unitPricedItemsSubTotal + multiPricedItemsSubTotal + mixPricedItemsSubTotal;
+    // Prices against whatever catalog is current when the checkout starts and reports which version that was.
+    public CheckoutResult checkoutAgainst(List<Item> checkoutItems, PricingCatalogHolder pricingCatalogHolder) {
+        return checkoutAgainst(checkoutItems, currentCatalogOf(pricingCatalogHolder));
     }
 
-    private Function<PricingRule, Double> mixPriceBasedCalculation(Map<String, List<Item>> groupedItems) {
-        return pricingRule -> {
+    public CheckoutResult checkoutAgainst(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        return new CheckoutResult(checkoutInMinorUnits(checkoutItems, pricingCatalog), pricingCatalog.getVersion());
+    }
 
-            double unitPrice = pricingRule.getUnitPrice();
-            double multiPrice = pricingRule.getMultiPrice();
+    public CheckoutResult checkoutAgainst(int[] scannedSkuIds, PricingCatalogHolder pricingCatalogHolder) {
+        return checkoutAgainst(scannedSkuIds, currentCatalogOf(pricingCatalogHolder));
+    }
 
-            int numberOfItemsToCheckout = groupedItems.get(pricingRule.getItem().getName()).size();
-            int multiPricedQuantityLimit = pricingRule.getMultiPricedQuantity();
+    public CheckoutResult checkoutAgainst(int[] scannedSkuIds, PricingCatalog pricingCatalog) {
+        return new CheckoutResult(checkoutInMinorUnits(scannedSkuIds, pricingCatalog), pricingCatalog.getVersion());
+    }
 
-            int numberOfTimesToApplyMultiPrice = numberOfItemsToCheckout / multiPricedQuantityLimit;
-            int numberOfTimesToApplyUnitPrice = numberOfItemsToCheckout - numberOfTimesToApplyMultiPrice * multiPricedQuantityLimit;
+    // For checkouts that need a receipt: the result also keeps the basket's quantities, and the catalog, so the
+    // receipt can be itemised from it later. Checkouts that only want the total should use checkoutAgainst.
+    public CheckoutResult checkoutItemisedAgainst(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        SkuQuantities skuQuantities = countAgainst(checkoutItems, pricingCatalog);
+        return CheckoutResult.itemisable(priceAgainst(skuQuantities, pricingCatalog), pricingCatalog, skuQuantities);
+    }
 
-            return numberOfTimesToApplyMultiPrice * multiPrice + numberOfTimesToApplyUnitPrice * unitPrice;
-        };
+    public CheckoutResult checkoutItemisedAgainst(int[] scannedSkuIds, PricingCatalog pricingCatalog) {
+        SkuQuantities skuQuantities = countAgainst(scannedSkuIds, pricingCatalog);
+        return CheckoutResult.itemisable(priceAgainst(skuQuantities, pricingCatalog), pricingCatalog, skuQuantities);
     }
 
-    private Function<PricingRule, Double> multiPriceBasedCalculation() {
-        return pricingRule -> pricingRule.getMultiPrice();
+    // For baskets that carry interned SKU ids, one id per scanned unit; no hashing of names at all.
+    public long checkoutInMinorUnits(int[] scannedSkuIds, PricingCatalog pricingCatalog) {
+        return priceAgainst(countAgainst(scannedSkuIds, pricingCatalog), pricingCatalog);
     }
 
-    private Function<PricingRule, Double> unitPriceBasedCalculation(Map<String, List<Item>> groupedItems) {
-        return pricingRule -> {
+    // Degraded mode: prices every item the catalog has a rule for and reports the others on the result, rather than
+    // failing the whole checkout over them. The result is itemisable, so what was priced can be shown next to what was not.
+    public CheckoutResult checkoutPricedItemsAgainst(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        SkuQuantities skuQuantities = new SkuQuantities();
+        Set<Item> unpricedItems = countPricedItems(checkoutItems, pricingCatalog, skuQuantities);
+        long totalPrice = priceAgainst(skuQuantities, pricingCatalog);
 
-            double unitPrice = pricingRule.getUnitPrice();
-            int numberOfItemsToCheckout = groupedItems.get(pricingRule.getItem().getName()).size();
+        return CheckoutResult.itemisable(totalPrice, pricingCatalog, skuQuantities,
+                unpricedItems == null ? Collections.emptyList() : new ArrayList<>(unpricedItems));
+    }
 
-            return unitPrice * numberOfItemsToCheckout;
-        };
+    // Validates a basket against the catalog and counts it per SKU id, the first half of every catalog checkout.
+    public SkuQuantities countAgainst(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        SkuQuantities skuQuantities = new SkuQuantities();
+        checkoutValidator.validateNoUnpricedItems(countPricedItems(checkoutItems, pricingCatalog, skuQuantities));
+        return skuQuantities;
     }
 
-    private Predicate<PricingRule> mixPricesAreApplicable(Map<String, List<Item>> groupedItems) {
-        return pricingRule -> {
+    public SkuQuantities countAgainst(int[] scannedSkuIds, PricingCatalog pricingCatalog) {
 
-            boolean isMultiPriced = pricingRule.hasMultiPrice();
-            int numberOfItemsToCheckout = groupedItems.get(pricingRule.getItem().getName()).size();
-            int multiPricedQuantity = pricingRule.getMultiPricedQuantity();
+        long phaseStarted = startPhase();
+        checkoutValidator.validateSkuIdsAgainstCatalog(scannedSkuIds, pricingCatalog);
+        phaseStarted = endPhase(VALIDATION, phaseStarted);
 
-            return isMultiPriced && numberOfItemsToCheckout > multiPricedQuantity;
-        };
+        SkuQuantities skuQuantities = new SkuQuantities();
+
+        for (int scannedSkuId : scannedSkuIds) {
+            checkoutValidator.validateSkuIdIsPriced(scannedSkuId, pricingCatalog);
+            skuQuantities.add(scannedSkuId, 1);
+        }
+
+        endPhase(GROUPING, phaseStarted);
+        recordBasketSize(scannedSkuIds.length);
+
+        return skuQuantities;
     }
 
-    private Predicate<PricingRule> multiPriceIsApplicable(Map<String, List<Item>> groupedItems) {
-        return pricingRule -> {
-            int numberOfItemsToCheckout = groupedItems.get(pricingRule.getItem().getName()).size();
-            return numberOfItemsToCheckout == pricingRule.getMultiPricedQuantity();
-        };
+    public double checkoutQuantities(Map<Item, Integer> checkoutItemQuantities, Map<Item, PricingRule> pricingRules) {
+        return Money.toMajorUnits(checkoutQuantitiesInMinorUnits(checkoutItemQuantities, pricingRules));
     }
 
-    private Predicate<PricingRule> unitPriceIsApplicable(Map<String, List<Item>> groupedItems) {
-        return pricingRule -> {
+    // For baskets that already know how many of each item they hold, so the cost is per order line rather than per unit.
+    public long checkoutQuantitiesInMinorUnits(Map<Item, Integer> checkoutItemQuantities, Map<Item, PricingRule> pricingRules) {
 
-            boolean isNotMultiPriced = !pricingRule.hasMultiPrice();
-            int numberOfItemsToCheckout = groupedItems.get(pricingRule.getItem().getName()).size();
+        checkoutValidator.validateQuantities(checkoutItemQuantities, pricingRules);
 
-            boolean numberOfItemsAreNotMultiPriceEligible = !pricingRule.isMultiPriceEligible(numberOfItemsToCheckout);
+        long totalPrice = 0;
+        Set<Item> unpricedItems = null;
 
-            return isNotMultiPriced || numberOfItemsAreNotMultiPriceEligible;
-        };
+        for (Map.Entry<Item, Integer> checkoutItemQuantity : checkoutItemQuantities.entrySet()) {
+            PricingRule pricingRule = pricingRules.get(checkoutItemQuantity.getKey());
+            if (pricingRule == null) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, checkoutItemQuantity.getKey());
+                continue;
+            }
+            totalPrice += pricingRule.priceInMinorUnitsFor(checkoutItemQuantity.getValue());
+        }
+
+        checkoutValidator.validateNoUnpricedItems(unpricedItems);
+        return totalPrice;
     }
 
+    public long checkoutQuantitiesInMinorUnits(Map<Item, Integer> checkoutItemQuantities, PricingCatalog pricingCatalog) {
+
+        checkoutValidator.validateQuantitiesAgainstCatalog(checkoutItemQuantities, pricingCatalog);
+
+        long totalPrice = 0;
+        Set<Item> unpricedItems = null;
+
+        for (Map.Entry<Item, Integer> checkoutItemQuantity : checkoutItemQuantities.entrySet()) {
+            int skuId = pricingCatalog.skuIdOf(checkoutItemQuantity.getKey());
+            if (!pricingCatalog.hasRuleFor(skuId)) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, checkoutItemQuantity.getKey());
+                continue;
+            }
+            totalPrice += pricingCatalog.priceInMinorUnits(skuId, checkoutItemQuantity.getValue());
+        }
+
+        checkoutValidator.validateNoUnpricedItems(unpricedItems);
+        return totalPrice;
+    }
+
+    // Order lines as parallel (skuId, quantity) arrays; a SKU may appear on more than one line.
+    public long checkoutQuantitiesInMinorUnits(int[] skuIds, int[] quantities, PricingCatalog pricingCatalog) {
+
+        checkoutValidator.validateSkuQuantitiesAgainstCatalog(skuIds, quantities, pricingCatalog);
+
+        SkuQuantities skuQuantities = new SkuQuantities(skuIds.length);
+
+        for (int line = 0; line < skuIds.length; line++) {
+            checkoutValidator.validateSkuIdIsPriced(skuIds[line], pricingCatalog);
+            skuQuantities.add(skuIds[line], quantities[line]);
+        }
+
+        return priceAgainst(skuQuantities, pricingCatalog);
+    }
+
+    // Counts the items that have a rule and returns the distinct ones that do not, or null when every item has one.
+    private Set<Item> countPricedItems(List<Item> checkoutItems, PricingCatalog pricingCatalog, SkuQuantities skuQuantities) {
+
+        long phaseStarted = startPhase();
+        checkoutValidator.validateAgainstCatalog(checkoutItems, pricingCatalog);
+        phaseStarted = endPhase(VALIDATION, phaseStarted);
+
+        Set<Item> unpricedItems = null;
+
+        for (Item checkoutItem : checkoutItems) {
+            int skuId = pricingCatalog.skuIdOf(checkoutItem);
+            if (pricingCatalog.hasRuleFor(skuId)) {
+                skuQuantities.add(skuId, 1);
+            } else {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, checkoutItem);
+            }
+        }
+
+        endPhase(GROUPING, phaseStarted);
+        recordBasketSize(checkoutItems.size());
+
+        return unpricedItems;
+    }
+
+    private long priceAgainst(SkuQuantities skuQuantities, PricingCatalog pricingCatalog) {
+        if (!metricsEnabled) {
+            return pricingCatalog.priceInMinorUnits(skuQuantities);
+        }
+
+        long phaseStarted = startPhase();
+        long totalPrice = pricingCatalog.priceInMinorUnits(skuQuantities);
+        endPhase(PRICING, phaseStarted);
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                checkoutMetrics.recordPricingPath(PricingPath.of(pricingCatalog.ruleFor(skuId), skuQuantities.quantityAt(slot)));
+            }
+        }
+
+        return totalPrice;
+    }
+
+    private long startPhase() {
+        return metricsEnabled ? System.nanoTime() : 0;
+    }
+
+    // records the phase that started at phaseStarted and returns when the next one starts
+    private long endPhase(CheckoutPhase checkoutPhase, long phaseStarted) {
+        if (!metricsEnabled) {
+            return 0;
+        }
+        long phaseEnded = System.nanoTime();
+        checkoutMetrics.recordPhase(checkoutPhase, phaseEnded - phaseStarted);
+        return phaseEnded;
+    }
+
+    private void recordBasketSize(int numberOfItems) {
+        if (metricsEnabled) {
+            checkoutMetrics.recordBasketSize(numberOfItems);
+        }
+    }
+
+    private PricingCatalog currentCatalogOf(PricingCatalogHolder pricingCatalogHolder) {
+        if (pricingCatalogHolder == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+        return pricingCatalogHolder.current();
+    }
 
 }
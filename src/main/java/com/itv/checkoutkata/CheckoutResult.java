@@ -0,0 +1,118 @@
+package com.itv.checkoutkata;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.itv.checkoutkata.ErrorMessages.RECEIPT_NOT_ITEMISED;
+
+// The total of a checkout, and for itemised checkouts what was bought as SKU ids and quantities, so a receipt can be
+// itemised from the catalog on demand. Only callers that ask for an itemised checkout pay for keeping the quantities.
+//
+// An itemisable result holds on to the catalog it was priced against, so keeping the result keeps that catalog
+// reachable even once it is superseded. Results that are retained, e.g. cached, should be the total-only ones.
+@EqualsAndHashCode(of = {"totalInMinorUnits", "catalogVersion", "unpricedItems"})
+@ToString(of = {"totalInMinorUnits", "catalogVersion", "unpricedItems"})
+public class CheckoutResult {
+
+    private static final Comparator<ReceiptLine> BY_ITEM_NAME = Comparator.comparing(line -> line.getItem().getName());
+
+    @Getter
+    private final long totalInMinorUnits;
+
+    // the version of the pricing catalog the total was priced against
+    @Getter
+    private final long catalogVersion;
+
+    // items left out of the total for having no pricing rule; only ever non-empty in degraded mode
+    @Getter
+    private final List<Item> unpricedItems;
+
+    private final PricingCatalog pricingCatalog;
+    private final int[] skuIds;
+    private final int[] quantities;
+
+    // built on first use; receipts are immutable, so racing threads at worst each build an equal one
+    private Receipt receipt;
+
+    public CheckoutResult(long totalInMinorUnits, long catalogVersion) {
+        this(totalInMinorUnits, catalogVersion, Collections.emptyList(), null, null, null);
+    }
+
+    private CheckoutResult(long totalInMinorUnits, long catalogVersion, List<Item> unpricedItems,
+                           PricingCatalog pricingCatalog, int[] skuIds, int[] quantities) {
+        this.totalInMinorUnits = totalInMinorUnits;
+        this.catalogVersion = catalogVersion;
+        this.unpricedItems = unpricedItems;
+        this.pricingCatalog = pricingCatalog;
+        this.skuIds = skuIds;
+        this.quantities = quantities;
+    }
+
+    // Keeps the quantities as two arrays of exactly the distinct SKUs bought plus the catalog they were priced against.
+    public static CheckoutResult itemisable(long totalInMinorUnits, PricingCatalog pricingCatalog, SkuQuantities skuQuantities) {
+        return itemisable(totalInMinorUnits, pricingCatalog, skuQuantities, Collections.emptyList());
+    }
+
+    public static CheckoutResult itemisable(long totalInMinorUnits, PricingCatalog pricingCatalog, SkuQuantities skuQuantities,
+                                            List<Item> unpricedItems) {
+        int[] skuIds = new int[skuQuantities.distinctSkus()];
+        int[] quantities = new int[skuIds.length];
+        int line = 0;
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                skuIds[line] = skuId;
+                quantities[line++] = skuQuantities.quantityAt(slot);
+            }
+        }
+
+        return new CheckoutResult(totalInMinorUnits, pricingCatalog.getVersion(), Collections.unmodifiableList(unpricedItems),
+                pricingCatalog, skuIds, quantities);
+    }
+
+    public double getTotal() {
+        return Money.toMajorUnits(totalInMinorUnits);
+    }
+
+    public boolean isComplete() {
+        return unpricedItems.isEmpty();
+    }
+
+    public boolean isItemisable() {
+        return pricingCatalog != null;
+    }
+
+    public Receipt receipt() {
+        if (!isItemisable()) {
+            throw new IllegalStateException(RECEIPT_NOT_ITEMISED);
+        }
+
+        Receipt itemised = receipt;
+        if (itemised == null) {
+            itemised = receipt = itemise();
+        }
+        return itemised;
+    }
+
+    private Receipt itemise() {
+        List<ReceiptLine> lines = new ArrayList<>(skuIds.length);
+        long savingsInMinorUnits = 0;
+        for (int line = 0; line < skuIds.length; line++) {
+            ReceiptLine receiptLine = ReceiptLine.of(pricingCatalog.ruleFor(skuIds[line]), quantities[line]);
+            lines.add(receiptLine);
+            savingsInMinorUnits += receiptLine.getSavingsInMinorUnits();
+        }
+
+        // sku ids only tell in which order the registry first met each item, so lines are put in item name order
+        lines.sort(BY_ITEM_NAME);
+
+        return new Receipt(Collections.unmodifiableList(lines), totalInMinorUnits, savingsInMinorUnits);
+    }
+}
@@ -2,6 +2,32 @@ package com.itv.checkoutkata;
 
 public final class ErrorMessages {
     public static final String MISSING_CHECKOUT_ITEMS = "Items to be checked out can not be empty!";
+    public static final String MISSING_BASKETS = "Baskets to be checked out can not be empty!";
     public static final String MISSING_PRICING_RULES = "pricing rules must be provided for a successful checkout!";
     public static final String NO_PRICING_RULES_FOR_CHECKOUT_ITEMS = "Missing pricing rules for some or all items in the checkout!";
+    public static final String NON_POSITIVE_CHECKOUT_QUANTITIES = "Quantities to be checked out must be positive!";
+    public static final String MISMATCHED_CHECKOUT_QUANTITIES = "Every SKU to be checked out needs exactly one quantity!";
+    public static final String MISMATCHED_PRICING_RULE = "Pricing rule must be keyed by the item it prices: ";
+    public static final String INCONSISTENT_PRICING_RULE = "Pricing rule has negative prices or an inconsistent multi price and multi priced quantity: ";
+    public static final String FOREIGN_SKU_REGISTRY = "Published pricing catalogs must share the SKU registry of the current one!";
+    public static final String NOT_A_PRICING_CATALOG_FILE = "File is not a binary pricing catalog this version can read!";
+    public static final String PRICING_CATALOG_FILE_TOO_LARGE = "Pricing catalog does not fit in a single binary catalog file!";
+    public static final String SKU_NAME_TOO_LONG = "SKU name is too long for a binary pricing catalog: ";
+    public static final String INVALID_SCAN_LOG_DELIMITER = "Scan log delimiter must be a single ASCII character other than a line break: ";
+    public static final String MALFORMED_SCAN_LINE = "Scan log line is not a transaction id and SKU, or is longer than the read buffer, at line ";
+    public static final String ITEM_NOT_IN_BASKET = "Item to be removed is not in the basket!";
+    public static final String BASKET_CHECKED_OUT = "Basket has already been checked out!";
+    public static final String INVALID_PROMOTION = "Promotion needs items and positive quantities, prices and percentages: ";
+    public static final String UNPRICED_PROMOTION_ITEM = "Promotions can only apply to items that have a pricing rule: ";
+    public static final String INVALID_PRICING_RULE_WINDOW = "Pricing rule must be valid from before it is valid until: ";
+    public static final String MISSING_PRICING_INSTANT = "An instant to price the checkout at must be provided!";
+    public static final String INVALID_MICRO_BATCH_SETTINGS = "Micro batches need a positive size, wait time and queue bound: ";
+    public static final String PRICING_QUEUE_FULL = "Too many checkouts are waiting to be priced, retry later!";
+    public static final String CHECKOUT_TIMED_OUT = "Checkout was not priced in time, retry later!";
+    public static final String INVALID_CHECKOUT_TIMEOUT = "Checkout timeout must be positive: ";
+    public static final String PRICING_SERVICE_STOPPED = "Pricing service has been stopped!";
+    public static final String NOT_A_BASKET_JOURNAL_FILE = "File is not a basket journal this version can read!";
+    public static final String BASKET_JOURNAL_CLOSED = "Basket journal has been closed or failed to write!";
+    public static final String NEGATIVE_SKU_ID = "SKU ids can not be negative: ";
+    public static final String RECEIPT_NOT_ITEMISED = "Checkout result was not priced against a catalog, so it cannot be itemised!";
 }
@@ -0,0 +1,19 @@
+package com.itv.checkoutkata;
+
+// Prices are held as whole minor units (pence) so that totals are exact; doubles in major units (pounds)
+// are only converted at the edges for the callers that still use them.
+public final class Money {
+
+    public static final int MINOR_UNITS_PER_MAJOR_UNIT = 100;
+
+    private Money() {
+    }
+
+    public static long toMinorUnits(double majorUnits) {
+        return Math.round(majorUnits * MINOR_UNITS_PER_MAJOR_UNIT);
+    }
+
+    public static double toMajorUnits(long minorUnits) {
+        return (double) minorUnits / MINOR_UNITS_PER_MAJOR_UNIT;
+    }
+}
@@ -0,0 +1,97 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps the running totals of every open basket in line with the current pricing catalog. Baskets are indexed by the
+// SKUs they hold, so publishing a catalog reprices only the SKUs whose rules changed, and only in the baskets holding
+// them, rather than checking every open basket out again.
+//
+// Like Basket, this is not thread-safe: the tills and price updates it serves must be driven from one thread.
+public class OpenBaskets {
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+
+    private final List<Set<Basket>> basketsBySkuId = new ArrayList<>();
+
+    private PricingCatalog current;
+
+    public OpenBaskets(Map<Item, PricingRule> pricingRules) {
+        this(PricingCatalog.of(pricingRules));
+    }
+
+    public OpenBaskets(PricingCatalog pricingCatalog) {
+        checkoutValidator.validateForMissingPricingCatalog(pricingCatalog);
+        this.current = pricingCatalog;
+    }
+
+    public PricingCatalog current() {
+        return current;
+    }
+
+    public Basket open() {
+        return new Basket(this);
+    }
+
+    // a closed basket keeps the total it was closed with and stops following price changes
+    public void close(Basket basket) {
+        basket.close();
+    }
+
+    public PricingCatalog publish(Map<Item, PricingRule> pricingRules) {
+        return publish(PricingCatalog.of(pricingRules, current.getSkuRegistry()));
+    }
+
+    // publishes the current catalog with the given rules added or replaced; the changed SKUs come with the catalog
+    public PricingCatalog publishChanges(Map<Item, PricingRule> updatedRules) {
+        return publish(current.withRules(updatedRules));
+    }
+
+    // Explodes without touching any basket if a changed SKU that is in an open basket loses its rule.
+    public PricingCatalog publish(PricingCatalog pricingCatalog) {
+        checkoutValidator.validateForMissingPricingCatalog(pricingCatalog);
+        int[] changedSkuIds = pricingCatalog.changedSkuIdsSince(current);
+
+        Set<Item> unpricedItems = null;
+        for (int skuId : changedSkuIds) {
+            if (!basketsHolding(skuId).isEmpty() && !pricingCatalog.hasRuleFor(skuId)) {
+                unpricedItems = checkoutValidator.collectUnpricedItem(unpricedItems, pricingCatalog.getSkuRegistry().itemOf(skuId));
+            }
+        }
+        checkoutValidator.validateNoUnpricedItems(unpricedItems);
+
+        for (int skuId : changedSkuIds) {
+            for (Basket basket : basketsHolding(skuId)) {
+                basket.reprice(skuId, current, pricingCatalog);
+            }
+        }
+
+        current = pricingCatalog;
+        return current;
+    }
+
+    public int basketsHoldingSku(int skuId) {
+        return basketsHolding(skuId).size();
+    }
+
+    void track(int skuId, Basket basket) {
+        while (basketsBySkuId.size() <= skuId) {
+            basketsBySkuId.add(new HashSet<>());
+        }
+        basketsBySkuId.get(skuId).add(basket);
+    }
+
+    void untrack(int skuId, Basket basket) {
+        basketsHolding(skuId).remove(basket);
+    }
+
+    private Set<Basket> basketsHolding(int skuId) {
+        return skuId < basketsBySkuId.size() ? basketsBySkuId.get(skuId) : Collections.emptySet();
+    }
+}
@@ -0,0 +1,220 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.itv.checkoutkata.ErrorMessages.FOREIGN_SKU_REGISTRY;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+
+// An immutable set of pricing rules that is validated once, when it is created, so that checkouts against it
+// only have to look up the rule of each distinct item.
+//
+// Items are interned into a SkuRegistry when the catalog is built and the rules are laid out in primitive arrays
+// indexed by SKU id, so a basket that carries ids is priced by array indexing alone.
+public final class PricingCatalog {
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static final long NOT_DERIVED = 0;
+
+    // unique and increasing across every catalog built, so a version identifies the exact rules a price came from
+    private final long version = VERSIONS.incrementAndGet();
+
+    private final SkuRegistry skuRegistry;
+    private final int size;
+
+    private final PricingRule[] pricingRules;
+    private final long[] unitPrices;
+    private final long[] multiPrices;
+    private final int[] multiPricedQuantities;
+
+    // for a catalog built by withRules, the version of the catalog it was derived from and the SKUs it changed, so
+    // changedSkuIdsSince that catalog needs no scan; only the version is kept, not the catalog itself
+    private final long derivedFromVersion;
+    private final int[] derivedChangedSkuIds;
+
+    private PricingCatalog(SkuRegistry skuRegistry, Map<Item, PricingRule> pricingRules) {
+        this.skuRegistry = skuRegistry;
+        this.size = pricingRules.size();
+        this.derivedFromVersion = NOT_DERIVED;
+        this.derivedChangedSkuIds = null;
+
+        pricingRules.keySet().forEach(skuRegistry::intern);
+
+        int skus = skuRegistry.size();
+        this.pricingRules = new PricingRule[skus];
+        this.unitPrices = new long[skus];
+        this.multiPrices = new long[skus];
+        this.multiPricedQuantities = new int[skus];
+
+        for (PricingRule pricingRule : pricingRules.values()) {
+            putRule(skuRegistry.idOf(pricingRule.getItem()), pricingRule);
+        }
+    }
+
+    private PricingCatalog(PricingCatalog previousCatalog, Map<Item, PricingRule> updatedRules) {
+        this.skuRegistry = previousCatalog.skuRegistry;
+
+        updatedRules.keySet().forEach(skuRegistry::intern);
+
+        int skus = Math.max(skuRegistry.size(), previousCatalog.pricingRules.length);
+        this.pricingRules = Arrays.copyOf(previousCatalog.pricingRules, skus);
+        this.unitPrices = Arrays.copyOf(previousCatalog.unitPrices, skus);
+        this.multiPrices = Arrays.copyOf(previousCatalog.multiPrices, skus);
+        this.multiPricedQuantities = Arrays.copyOf(previousCatalog.multiPricedQuantities, skus);
+
+        int size = previousCatalog.size;
+        int[] changedSkuIds = new int[updatedRules.size()];
+        int changedSkus = 0;
+
+        for (PricingRule pricingRule : updatedRules.values()) {
+            int skuId = skuRegistry.idOf(pricingRule.getItem());
+            if (!hasRuleFor(skuId)) {
+                size++;
+            }
+            if (!hasSameRuleAs(skuId, pricingRule)) {
+                changedSkuIds[changedSkus++] = skuId;
+            }
+            putRule(skuId, pricingRule);
+        }
+
+        this.size = size;
+        this.derivedFromVersion = previousCatalog.version;
+        this.derivedChangedSkuIds = Arrays.copyOf(changedSkuIds, changedSkus);
+        Arrays.sort(this.derivedChangedSkuIds);
+    }
+
+    public static PricingCatalog of(Map<Item, PricingRule> pricingRules) {
+        return of(pricingRules, new SkuRegistry());
+    }
+
+    // Catalogs built on the same registry agree on SKU ids, so baskets of ids can be priced against any of them.
+    public static PricingCatalog of(Map<Item, PricingRule> pricingRules, SkuRegistry skuRegistry) {
+        new CheckoutValidator().validatePricingCatalog(pricingRules);
+        return new PricingCatalog(skuRegistry, pricingRules);
+    }
+
+    // A catalog with the given rules added or replaced and every other rule kept, on the same registry. It remembers
+    // which SKUs it changed, so finding what to reprice when it is published over this catalog compares no rules.
+    public PricingCatalog withRules(Map<Item, PricingRule> updatedRules) {
+        new CheckoutValidator().validatePricingCatalog(updatedRules);
+        return new PricingCatalog(this, updatedRules);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public SkuRegistry getSkuRegistry() {
+        return skuRegistry;
+    }
+
+    public int skuIdOf(Item item) {
+        return skuRegistry.idOf(item);
+    }
+
+    public int requireSkuIdOf(Item item) {
+        int skuId = skuRegistry.idOf(item);
+        if (!hasRuleFor(skuId)) {
+            throw new UnpricedItemsException(Collections.singletonList(item));
+        }
+        return skuId;
+    }
+
+    public PricingRule ruleFor(Item item) {
+        return ruleFor(skuIdOf(item));
+    }
+
+    public PricingRule ruleFor(int skuId) {
+        return hasRuleFor(skuId) ? pricingRules[skuId] : null;
+    }
+
+    public PricingRule requireRuleFor(Item item) {
+        return pricingRules[requireSkuIdOf(item)];
+    }
+
+    public boolean hasRuleFor(Item item) {
+        return hasRuleFor(skuIdOf(item));
+    }
+
+    public boolean hasRuleFor(int skuId) {
+        return skuId >= 0 && skuId < pricingRules.length && pricingRules[skuId] != null;
+    }
+
+    public long priceInMinorUnits(int skuId, int quantity) {
+        if (!hasRuleFor(skuId)) {
+            throw new IllegalStateException(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+        }
+        return PricingRule.priceInMinorUnits(unitPrices[skuId], multiPrices[skuId], multiPricedQuantities[skuId], quantity);
+    }
+
+    public long priceInMinorUnits(SkuQuantities skuQuantities) {
+        long totalPrice = 0;
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                totalPrice += priceInMinorUnits(skuId, skuQuantities.quantityAt(slot));
+            }
+        }
+
+        return totalPrice;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The SKUs whose rule was added, removed or changed since the previous catalog, so that anything priced against
+    // the previous catalog can be brought up to date by repricing just those SKUs. A catalog derived from the previous
+    // one by withRules already knows them; any other pair of catalogs is compared SKU by SKU.
+    public int[] changedSkuIdsSince(PricingCatalog previousCatalog) {
+        new CheckoutValidator().validateForMissingPricingCatalog(previousCatalog);
+        if (previousCatalog.skuRegistry != skuRegistry) {
+            throw new IllegalArgumentException(FOREIGN_SKU_REGISTRY);
+        }
+        if (previousCatalog.version == derivedFromVersion) {
+            return derivedChangedSkuIds.clone();
+        }
+
+        int skus = Math.max(pricingRules.length, previousCatalog.pricingRules.length);
+        int[] changedSkuIds = new int[skus];
+        int changedSkus = 0;
+
+        for (int skuId = 0; skuId < skus; skuId++) {
+            if (!hasSameRuleAs(previousCatalog, skuId)) {
+                changedSkuIds[changedSkus++] = skuId;
+            }
+        }
+
+        return Arrays.copyOf(changedSkuIds, changedSkus);
+    }
+
+    private boolean hasSameRuleAs(int skuId, PricingRule pricingRule) {
+        return hasRuleFor(skuId)
+                && unitPrices[skuId] == pricingRule.getUnitPriceInMinorUnits()
+                && multiPrices[skuId] == pricingRule.getMultiPriceInMinorUnits()
+                && multiPricedQuantities[skuId] == pricingRule.getMultiPricedQuantity();
+    }
+
+    private void putRule(int skuId, PricingRule pricingRule) {
+        pricingRules[skuId] = pricingRule;
+        unitPrices[skuId] = pricingRule.getUnitPriceInMinorUnits();
+        multiPrices[skuId] = pricingRule.getMultiPriceInMinorUnits();
+        multiPricedQuantities[skuId] = pricingRule.getMultiPricedQuantity();
+    }
+
+    private boolean hasSameRuleAs(PricingCatalog otherCatalog, int skuId) {
+        if (!hasRuleFor(skuId) || !otherCatalog.hasRuleFor(skuId)) {
+            return hasRuleFor(skuId) == otherCatalog.hasRuleFor(skuId);
+        }
+        return unitPrices[skuId] == otherCatalog.unitPrices[skuId]
+                && multiPrices[skuId] == otherCatalog.multiPrices[skuId]
+                && multiPricedQuantities[skuId] == otherCatalog.multiPricedQuantities[skuId];
+    }
+}
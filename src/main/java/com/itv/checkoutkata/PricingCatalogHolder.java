@@ -0,0 +1,49 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.itv.checkoutkata.ErrorMessages.FOREIGN_SKU_REGISTRY;
+
+// Shares the current pricing catalog between any number of tills. Readers take the current catalog with a single
+// volatile read and price a whole checkout against it, so a price change published mid-transaction never mixes two
+// versions and never blocks or copies anything for the readers. Every version is built on the same SkuRegistry so
+// SKU ids held by open baskets keep their meaning across versions.
+public class PricingCatalogHolder {
+
+    private final AtomicReference<PricingCatalog> current;
+
+    public PricingCatalogHolder(Map<Item, PricingRule> pricingRules) {
+        this(PricingCatalog.of(pricingRules));
+    }
+
+    public PricingCatalogHolder(PricingCatalog pricingCatalog) {
+        new CheckoutValidator().validateForMissingPricingCatalog(pricingCatalog);
+        this.current = new AtomicReference<>(pricingCatalog);
+    }
+
+    public PricingCatalog current() {
+        return current.get();
+    }
+
+    public SkuRegistry getSkuRegistry() {
+        return current().getSkuRegistry();
+    }
+
+    public PricingCatalog publish(Map<Item, PricingRule> pricingRules) {
+        return publish(PricingCatalog.of(pricingRules, getSkuRegistry()));
+    }
+
+    // Never goes back to an older version, even if two publishers race.
+    public PricingCatalog publish(PricingCatalog pricingCatalog) {
+        new CheckoutValidator().validateForMissingPricingCatalog(pricingCatalog);
+        if (pricingCatalog.getSkuRegistry() != getSkuRegistry()) {
+            throw new IllegalArgumentException(FOREIGN_SKU_REGISTRY);
+        }
+
+        return current.accumulateAndGet(pricingCatalog,
+                (published, candidate) -> candidate.getVersion() > published.getVersion() ? candidate : published);
+    }
+}
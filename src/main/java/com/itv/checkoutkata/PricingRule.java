@@ -4,20 +4,41 @@ import lombok.Builder;
 import lombok.Data;
 
 @Data
-@Builder
 public class PricingRule {
 
 
     private final Item item;
 
-    private final double unitPrice;
-    private final double multiPrice;
+    private final long unitPriceInMinorUnits;
+    private final long multiPriceInMinorUnits;
 
     private final int multiPricedQuantity;
 
 
+    @Builder
+    private PricingRule(Item item, long unitPriceInMinorUnits, long multiPriceInMinorUnits, int multiPricedQuantity) {
+        this.item = item;
+        this.unitPriceInMinorUnits = unitPriceInMinorUnits;
+        this.multiPriceInMinorUnits = multiPriceInMinorUnits;
+        this.multiPricedQuantity = multiPricedQuantity;
+    }
+
+    // compatibility with prices given as doubles in major units
+    public PricingRule(Item item, double unitPrice, double multiPrice, int multiPricedQuantity) {
+        this(item, Money.toMinorUnits(unitPrice), Money.toMinorUnits(multiPrice), multiPricedQuantity);
+    }
+
+
+    public double getUnitPrice(){
+        return Money.toMajorUnits(unitPriceInMinorUnits);
+    }
+
+    public double getMultiPrice(){
+        return Money.toMajorUnits(multiPriceInMinorUnits);
+    }
+
     public boolean hasMultiPrice(){
-        return multiPrice > 0.0 && multiPricedQuantity > 1;
+        return multiPriceInMinorUnits > 0 && multiPricedQuantity > 1;
     }
 
 
@@ -25,4 +46,63 @@ public class PricingRule {
         return numberOfItems >= multiPricedQuantity;
     }
 
+    public double priceFor(int numberOfItems){
+        return Money.toMajorUnits(priceInMinorUnitsFor(numberOfItems));
+    }
+
+    public long priceInMinorUnitsFor(int numberOfItems){
+        return priceInMinorUnits(unitPriceInMinorUnits, multiPriceInMinorUnits, multiPricedQuantity, numberOfItems);
+    }
+
+    // How the checkout splits a quantity: the number of times the multi price is applied and the units left at the
+    // unit price, and what that saves against pricing every unit at the unit price.
+    public int multiPriceApplicationsFor(int numberOfItems){
+        return hasMultiPrice() && numberOfItems >= multiPricedQuantity ? numberOfItems / multiPricedQuantity : 0;
+    }
+
+    public int unitPricedRemainderFor(int numberOfItems){
+        return numberOfItems - multiPriceApplicationsFor(numberOfItems) * multiPricedQuantity;
+    }
+
+    public long savingsInMinorUnitsFor(int numberOfItems){
+        return unitPriceInMinorUnits * numberOfItems - priceInMinorUnitsFor(numberOfItems);
+    }
+
+    // Prices the given quantity of one item in one go, applying the unit, exact multi and mix price paths exactly as
+    // the checkout always has. Static and primitive so that catalogs holding rules as arrays can share it.
+    public static long priceInMinorUnits(long unitPrice, long multiPrice, int multiPricedQuantity, int numberOfItems){
+
+        boolean hasMultiPrice = multiPrice > 0 && multiPricedQuantity > 1;
+        long price = 0;
+
+        if (!hasMultiPrice || numberOfItems < multiPricedQuantity) {
+            price += unitPrice * numberOfItems;
+        }
+
+        if (numberOfItems == multiPricedQuantity) {
+            price += multiPrice;
+        }
+
+        if (hasMultiPrice && numberOfItems > multiPricedQuantity) {
+            int numberOfTimesToApplyMultiPrice = numberOfItems / multiPricedQuantity;
+            int numberOfTimesToApplyUnitPrice = numberOfItems - numberOfTimesToApplyMultiPrice * multiPricedQuantity;
+
+            price += numberOfTimesToApplyMultiPrice * multiPrice + numberOfTimesToApplyUnitPrice * unitPrice;
+        }
+
+        return price;
+    }
+
+
+    public static class PricingRuleBuilder {
+
+        public PricingRuleBuilder unitPrice(double unitPrice) {
+            return unitPriceInMinorUnits(Money.toMinorUnits(unitPrice));
+        }
+
+        public PricingRuleBuilder multiPrice(double multiPrice) {
+            return multiPriceInMinorUnits(Money.toMinorUnits(multiPrice));
+        }
+    }
+
 }
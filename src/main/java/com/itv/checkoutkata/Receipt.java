@@ -0,0 +1,33 @@
+package com.itv.checkoutkata;
+
+import lombok.Data;
+
+import java.util.List;
+
+// The itemised form of a checkout, one line per SKU in item name order.
+@Data
+public class Receipt {
+
+    private final List<ReceiptLine> lines;
+
+    private final long totalInMinorUnits;
+    private final long savingsInMinorUnits;
+
+    public double getTotal() {
+        return Money.toMajorUnits(totalInMinorUnits);
+    }
+
+    public double getSavings() {
+        return Money.toMajorUnits(savingsInMinorUnits);
+    }
+
+    // null if the item was not bought
+    public ReceiptLine lineFor(Item item) {
+        for (ReceiptLine line : lines) {
+            if (line.getItem().equals(item)) {
+                return line;
+            }
+        }
+        return null;
+    }
+}
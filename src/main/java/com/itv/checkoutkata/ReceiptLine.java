@@ -0,0 +1,35 @@
+package com.itv.checkoutkata;
+
+import lombok.Data;
+
+// One SKU of a receipt: how many were bought, how the pricing rule split them and what the rule saved.
+@Data
+public class ReceiptLine {
+
+    private final PricingRule pricingRule;
+    private final int quantity;
+
+    private final int multiPriceApplications;
+    private final int unitPricedRemainder;
+
+    private final long priceInMinorUnits;
+    private final long savingsInMinorUnits;
+
+    public static ReceiptLine of(PricingRule pricingRule, int quantity) {
+        return new ReceiptLine(pricingRule, quantity,
+                pricingRule.multiPriceApplicationsFor(quantity), pricingRule.unitPricedRemainderFor(quantity),
+                pricingRule.priceInMinorUnitsFor(quantity), pricingRule.savingsInMinorUnitsFor(quantity));
+    }
+
+    public Item getItem() {
+        return pricingRule.getItem();
+    }
+
+    public double getPrice() {
+        return Money.toMajorUnits(priceInMinorUnits);
+    }
+
+    public double getSavings() {
+        return Money.toMajorUnits(savingsInMinorUnits);
+    }
+}
@@ -0,0 +1,183 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+
+// Every scheduled rule of every item, so a checkout can be priced as of any instant, now or in a replay of the past,
+// without building a catalog per instant.
+//
+// When the catalog is built, the windows of each SKU are flattened into a timeline of disjoint segments, each with the
+// one rule that applies throughout it, so the rule at an instant is found by a binary search of the segment starts.
+// Where windows overlap, the one that opened last applies, e.g. a happy hour within a weekend deal within the
+// everyday price; between windows that opened together, the one that closes first applies.
+//
+// Built against the SKU registry of a pricing catalog, a SKU has the same id in both, so ids counted for one can be
+// priced by the other.
+public final class ScheduledPricingCatalog {
+
+    // where windows overlap, the one that opened last, then the one that closes first
+    private static final Comparator<ScheduledPricingRule> PRECEDENCE = Comparator
+            .comparing(ScheduledPricingRule::effectiveValidFrom).reversed()
+            .thenComparing(ScheduledPricingRule::effectiveValidUntil);
+
+    private final SkuRegistry skuRegistry;
+
+    // per SKU id, the instant each segment starts at and the rule throughout it, null where no rule applies; both are
+    // null for SKUs of the registry that have no scheduled rules
+    private final Instant[][] segmentStartsBySkuId;
+    private final PricingRule[][] segmentRulesBySkuId;
+
+    private final int size;
+
+    private ScheduledPricingCatalog(Collection<ScheduledPricingRule> scheduledPricingRules, SkuRegistry skuRegistry) {
+        this.skuRegistry = skuRegistry;
+        this.size = scheduledPricingRules.size();
+
+        Map<Integer, List<ScheduledPricingRule>> scheduledPricingRulesBySkuId = new HashMap<>();
+        int skus = 0;
+        for (ScheduledPricingRule scheduledPricingRule : scheduledPricingRules) {
+            int skuId = skuRegistry.intern(scheduledPricingRule.getItem());
+            scheduledPricingRulesBySkuId.computeIfAbsent(skuId, newSkuId -> new ArrayList<>()).add(scheduledPricingRule);
+            skus = Math.max(skus, skuId + 1);
+        }
+
+        this.segmentStartsBySkuId = new Instant[skus][];
+        this.segmentRulesBySkuId = new PricingRule[skus][];
+        scheduledPricingRulesBySkuId.forEach(this::flattenTimelineOf);
+    }
+
+    public static ScheduledPricingCatalog of(Collection<ScheduledPricingRule> scheduledPricingRules) {
+        return of(scheduledPricingRules, new SkuRegistry());
+    }
+
+    public static ScheduledPricingCatalog of(Collection<ScheduledPricingRule> scheduledPricingRules, SkuRegistry skuRegistry) {
+        new CheckoutValidator().validateScheduledPricingRules(scheduledPricingRules);
+        return new ScheduledPricingCatalog(scheduledPricingRules, skuRegistry);
+    }
+
+    public SkuRegistry getSkuRegistry() {
+        return skuRegistry;
+    }
+
+    public int skuIdOf(Item item) {
+        return skuRegistry.idOf(item);
+    }
+
+    public int requireSkuIdOf(Item item) {
+        int skuId = skuRegistry.idOf(item);
+        if (!hasTimeline(skuId)) {
+            throw new UnpricedItemsException(Collections.singletonList(item));
+        }
+        return skuId;
+    }
+
+    public Item itemOf(int skuId) {
+        return skuRegistry.itemOf(skuId);
+    }
+
+    public PricingRule ruleFor(Item item, Instant pricedAt) {
+        return ruleFor(skuRegistry.idOf(item), pricedAt);
+    }
+
+    public PricingRule ruleFor(int skuId, Instant pricedAt) {
+        if (!hasTimeline(skuId)) {
+            return null;
+        }
+
+        Instant[] segmentStarts = segmentStartsBySkuId[skuId];
+        int segment = Arrays.binarySearch(segmentStarts, pricedAt);
+        if (segment < 0) {
+            // not a segment start, so it is within the segment before the insertion point
+            segment = -segment - 2;
+        }
+
+        return segmentRulesBySkuId[skuId][segment];
+    }
+
+    public long priceInMinorUnits(int skuId, int quantity, Instant pricedAt) {
+        PricingRule pricingRule = ruleFor(skuId, pricedAt);
+        if (pricingRule == null) {
+            // an id the registry never handed out has no item to name
+            if (skuId < 0 || skuId >= skuRegistry.size()) {
+                throw new IllegalStateException(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS + " SKU id " + skuId);
+            }
+            throw new UnpricedItemsException(Collections.singletonList(itemOf(skuId)));
+        }
+        return pricingRule.priceInMinorUnitsFor(quantity);
+    }
+
+    public long priceInMinorUnits(SkuQuantities skuQuantities, Instant pricedAt) {
+        long totalPrice = 0;
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                totalPrice += priceInMinorUnits(skuId, skuQuantities.quantityAt(slot), pricedAt);
+            }
+        }
+
+        return totalPrice;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean hasTimeline(int skuId) {
+        return skuId >= 0 && skuId < segmentStartsBySkuId.length && segmentStartsBySkuId[skuId] != null;
+    }
+
+    // One sort and one sweep over the boundaries, keeping the windows open at each in a heap ordered by precedence.
+    // Windows that have closed are only dropped once they reach the top, as until then they cannot be the one in force.
+    private void flattenTimelineOf(int skuId, List<ScheduledPricingRule> scheduledPricingRules) {
+        List<ScheduledPricingRule> byOpening = new ArrayList<>(scheduledPricingRules);
+        byOpening.sort(Comparator.comparing(ScheduledPricingRule::effectiveValidFrom));
+
+        TreeSet<Instant> boundaries = new TreeSet<>();
+        boundaries.add(Instant.MIN);
+        for (ScheduledPricingRule scheduledPricingRule : scheduledPricingRules) {
+            boundaries.add(scheduledPricingRule.effectiveValidFrom());
+            if (scheduledPricingRule.getValidUntil() != null) {
+                boundaries.add(scheduledPricingRule.getValidUntil());
+            }
+        }
+
+        PriorityQueue<ScheduledPricingRule> openWindows = new PriorityQueue<>(PRECEDENCE);
+        int opened = 0;
+
+        List<Instant> segmentStarts = new ArrayList<>();
+        List<PricingRule> segmentRules = new ArrayList<>();
+        for (Instant boundary : boundaries) {
+            while (opened < byOpening.size() && !byOpening.get(opened).effectiveValidFrom().isAfter(boundary)) {
+                openWindows.add(byOpening.get(opened++));
+            }
+            while (!openWindows.isEmpty() && !openWindows.peek().effectiveValidUntil().isAfter(boundary)) {
+                openWindows.poll();
+            }
+            PricingRule pricingRule = openWindows.isEmpty() ? null : openWindows.peek().getPricingRule();
+
+            // neighbouring segments with the same rule are one segment
+            if (segmentRules.isEmpty() || segmentRules.get(segmentRules.size() - 1) != pricingRule) {
+                segmentStarts.add(boundary);
+                segmentRules.add(pricingRule);
+            }
+        }
+
+        segmentStartsBySkuId[skuId] = segmentStarts.toArray(new Instant[0]);
+        segmentRulesBySkuId[skuId] = segmentRules.toArray(new PricingRule[0]);
+    }
+}
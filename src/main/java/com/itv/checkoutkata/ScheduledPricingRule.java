@@ -0,0 +1,36 @@
+package com.itv.checkoutkata;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+// A pricing rule that only applies from validFrom, inclusive, until validUntil, exclusive. A missing bound leaves
+// the window open on that side, so a rule without either bound is the item's everyday price.
+@Data
+public class ScheduledPricingRule {
+
+    private final PricingRule pricingRule;
+    private final Instant validFrom;
+    private final Instant validUntil;
+
+    public static ScheduledPricingRule always(PricingRule pricingRule) {
+        return new ScheduledPricingRule(pricingRule, null, null);
+    }
+
+    public static ScheduledPricingRule between(PricingRule pricingRule, Instant validFrom, Instant validUntil) {
+        return new ScheduledPricingRule(pricingRule, validFrom, validUntil);
+    }
+
+    public Item getItem() {
+        return pricingRule.getItem();
+    }
+
+    // the bounds with a missing one as the earliest or latest instant there is
+    Instant effectiveValidFrom() {
+        return validFrom == null ? Instant.MIN : validFrom;
+    }
+
+    Instant effectiveValidUntil() {
+        return validUntil == null ? Instant.MAX : validUntil;
+    }
+}
@@ -0,0 +1,112 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.itv.checkoutkata.ErrorMessages.BASKET_CHECKED_OUT;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+
+// A basket that any number of scanners can add to at once, for self-checkout pods and group orders. Every SKU counts
+// its quantity in a LongAdder, which stripes increments across cells per thread, so concurrent scans never lock and
+// do not fight over a quantity, not even when they scan the same SKU.
+//
+// Scans are only counted, the basket is priced once by checkout, which first seals it: scans that race the seal are
+// either counted before the total is taken or rejected, so the total is that of exactly the scans that succeeded.
+public class SharedBasket {
+
+    // one cell per scanning core or so, each on a cache line of its own: IN_FLIGHT_STRIDE longs are 128 bytes apart
+    private static final int IN_FLIGHT_CELLS = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+    private static final int IN_FLIGHT_STRIDE = 16;
+
+    private final PricingCatalog pricingCatalog;
+
+    // indexed by SKU id, an adder is only made for a SKU once it is first scanned
+    private final AtomicReferenceArray<LongAdder> quantities;
+
+    // Scans announce themselves in a cell before checking the seal, so checkout can wait for the ones it let through.
+    // A scan picks its cell once, from its thread, and leaves through that same cell, so a cell reading 0 after the
+    // seal means no scan that got past it is still counting there. Unlike one shared counter, scanners on different
+    // cores do not bounce a cache line between them.
+    private final AtomicLongArray scansInFlight = new AtomicLongArray(IN_FLIGHT_CELLS * IN_FLIGHT_STRIDE);
+    private volatile boolean checkedOut;
+
+    public SharedBasket(Map<Item, PricingRule> pricingRules) {
+        this(PricingCatalog.of(pricingRules));
+    }
+
+    public SharedBasket(PricingCatalog pricingCatalog) {
+        new CheckoutValidator().validateForMissingPricingCatalog(pricingCatalog);
+        this.pricingCatalog = pricingCatalog;
+        // every SKU with a rule was interned before the catalog was built, so none has an id past this
+        this.quantities = new AtomicReferenceArray<>(pricingCatalog.getSkuRegistry().size());
+    }
+
+    public void scan(Item item) {
+        scan(pricingCatalog.requireSkuIdOf(item));
+    }
+
+    public void scan(int skuId) {
+        if (!pricingCatalog.hasRuleFor(skuId)) {
+            throw new IllegalStateException(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+        }
+
+        int inFlight = inFlightCellOfCurrentThread();
+        scansInFlight.incrementAndGet(inFlight);
+        try {
+            if (checkedOut) {
+                throw new IllegalStateException(BASKET_CHECKED_OUT);
+            }
+            quantityOf(skuId).increment();
+        } finally {
+            scansInFlight.decrementAndGet(inFlight);
+        }
+    }
+
+    public int quantityOf(Item item) {
+        int skuId = pricingCatalog.skuIdOf(item);
+        LongAdder quantity = skuId >= 0 && skuId < quantities.length() ? quantities.get(skuId) : null;
+        return quantity == null ? 0 : Math.toIntExact(quantity.sum());
+    }
+
+    public boolean isCheckedOut() {
+        return checkedOut;
+    }
+
+    public synchronized CheckoutResult checkout() {
+        if (!checkedOut) {
+            checkedOut = true;
+            for (int inFlight = 0; inFlight < scansInFlight.length(); inFlight += IN_FLIGHT_STRIDE) {
+                while (scansInFlight.get(inFlight) != 0) {
+                    Thread.yield();
+                }
+            }
+        }
+
+        SkuQuantities skuQuantities = new SkuQuantities();
+        for (int skuId = 0; skuId < quantities.length(); skuId++) {
+            LongAdder quantity = quantities.get(skuId);
+            if (quantity != null) {
+                skuQuantities.add(skuId, Math.toIntExact(quantity.sum()));
+            }
+        }
+
+        return new CheckoutResult(pricingCatalog.priceInMinorUnits(skuQuantities), pricingCatalog.getVersion());
+    }
+
+    private LongAdder quantityOf(int skuId) {
+        LongAdder quantity = quantities.get(skuId);
+        if (quantity == null && !quantities.compareAndSet(skuId, null, quantity = new LongAdder())) {
+            quantity = quantities.get(skuId);
+        }
+        return quantity;
+    }
+
+    private static int inFlightCellOfCurrentThread() {
+        int hash = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return ((hash ^ hash >>> 16) & (IN_FLIGHT_CELLS - 1)) * IN_FLIGHT_STRIDE;
+    }
+}
@@ -0,0 +1,139 @@
+package com.itv.checkoutkata;
+
+import java.util.Arrays;
+
+import static com.itv.checkoutkata.ErrorMessages.NEGATIVE_SKU_ID;
+
+// A primitive open-addressing map from SKU id to quantity, so that counting a basket costs no allocation per scan and
+// no string hashing. Iterate it by slot: for every slot below slots(), skuIdAt returns the id held there or NO_SKU.
+public final class SkuQuantities {
+
+    public static final int NO_SKU = -1;
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private final int initialCapacity;
+
+    private int[] skuIds;
+    private int[] quantities;
+    private int usedSlots;
+    private int distinctSkus;
+
+    public SkuQuantities() {
+        this(MINIMUM_CAPACITY / 2);
+    }
+
+    public SkuQuantities(int expectedDistinctSkus) {
+        this.initialCapacity = capacityFor(expectedDistinctSkus);
+        allocate(initialCapacity);
+    }
+
+    // returns the quantity after adding, which callers must keep from going negative; negative ids would collide with
+    // NO_SKU, and so with empty slots, so they are rejected
+    public int add(int skuId, int quantity) {
+        if (skuId < 0) {
+            throw new IllegalArgumentException(NEGATIVE_SKU_ID + skuId);
+        }
+        int slot = slotOf(skuId);
+
+        if (skuIds[slot] == NO_SKU) {
+            if ((usedSlots + 1) * 2 > skuIds.length) {
+                resize();
+                slot = slotOf(skuId);
+            }
+            skuIds[slot] = skuId;
+            usedSlots++;
+        }
+
+        int previousQuantity = quantities[slot];
+        int newQuantity = previousQuantity + quantity;
+        quantities[slot] = newQuantity;
+
+        if (previousQuantity == 0 && newQuantity != 0) {
+            distinctSkus++;
+        } else if (previousQuantity != 0 && newQuantity == 0) {
+            distinctSkus--;
+        }
+
+        return newQuantity;
+    }
+
+    public int quantityOf(int skuId) {
+        int slot = slotOf(skuId);
+        return skuIds[slot] == NO_SKU ? 0 : quantities[slot];
+    }
+
+    public int distinctSkus() {
+        return distinctSkus;
+    }
+
+    public boolean isEmpty() {
+        return distinctSkus == 0;
+    }
+
+    public int slots() {
+        return skuIds.length;
+    }
+
+    public int skuIdAt(int slot) {
+        return quantities[slot] == 0 ? NO_SKU : skuIds[slot];
+    }
+
+    public int quantityAt(int slot) {
+        return quantities[slot];
+    }
+
+    // Clearing costs the capacity, and so does iterating, so when one outlier has grown the table far beyond what the
+    // counts just cleared needed, it shrinks back rather than making every count after it pay for the outlier. It
+    // never shrinks below the capacity it was created with.
+    public void clear() {
+        int fittingCapacity = Math.max(initialCapacity, capacityFor(usedSlots));
+        if (skuIds.length > fittingCapacity * 4) {
+            allocate(fittingCapacity);
+        } else {
+            Arrays.fill(skuIds, NO_SKU);
+            Arrays.fill(quantities, 0);
+        }
+        usedSlots = 0;
+        distinctSkus = 0;
+    }
+
+    private int slotOf(int skuId) {
+        int mask = skuIds.length - 1;
+        int hash = skuId * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (skuIds[slot] != NO_SKU && skuIds[slot] != skuId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        int[] oldSkuIds = skuIds;
+        int[] oldQuantities = quantities;
+
+        allocate(oldSkuIds.length * 2);
+        usedSlots = 0;
+        distinctSkus = 0;
+
+        for (int slot = 0; slot < oldSkuIds.length; slot++) {
+            if (oldSkuIds[slot] != NO_SKU && oldQuantities[slot] != 0) {
+                add(oldSkuIds[slot], oldQuantities[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        skuIds = new int[capacity];
+        quantities = new int[capacity];
+        Arrays.fill(skuIds, NO_SKU);
+    }
+
+    private static int capacityFor(int expectedDistinctSkus) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < expectedDistinctSkus * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
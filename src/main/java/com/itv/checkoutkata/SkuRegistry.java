@@ -0,0 +1,63 @@
+package com.itv.checkoutkata;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interns SKU names to dense int ids, 0, 1, 2 ... in the order they are first seen, so that everything past catalog
+// loading can index arrays by id instead of hashing strings. Ids are never reused, which lets catalogs that share a
+// registry, and the baskets holding ids, agree on what an id means.
+public final class SkuRegistry {
+
+    public static final int UNKNOWN_SKU = -1;
+
+    private final ConcurrentHashMap<String, Integer> idsByName = new ConcurrentHashMap<>();
+    private volatile String[] namesById = new String[16];
+    private int size;
+
+    public int intern(Item item) {
+        return intern(item.getName());
+    }
+
+    public int intern(String name) {
+        Integer id = idsByName.get(name);
+        return id != null ? id : register(name);
+    }
+
+    public int idOf(Item item) {
+        return idOf(item.getName());
+    }
+
+    public int idOf(String name) {
+        Integer id = idsByName.get(name);
+        return id != null ? id : UNKNOWN_SKU;
+    }
+
+    public String nameOf(int id) {
+        return namesById[id];
+    }
+
+    public Item itemOf(int id) {
+        return new Item(nameOf(id));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private synchronized int register(String name) {
+        Integer id = idsByName.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        String[] names = namesById;
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        names[size] = name;
+        namesById = names;
+
+        idsByName.put(name, size);
+        return size++;
+    }
+}
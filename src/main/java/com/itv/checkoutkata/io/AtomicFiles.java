@@ -0,0 +1,42 @@
+package com.itv.checkoutkata.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+
+// Replaces files that others may have open or mapped, by writing a sibling and renaming it over the original, so
+// readers see either the whole old file or the whole new one.
+final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    static Path siblingOf(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    // the replacement must already be forced to disk; the rename itself is only durable once the directory is
+    static void replace(Path replacement, Path file) throws IOException {
+        Files.move(replacement, file, REPLACE_EXISTING, ATOMIC_MOVE);
+        syncDirectoryOf(file);
+    }
+
+    private static void syncDirectoryOf(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        FileChannel directoryChannel;
+        try {
+            directoryChannel = FileChannel.open(directory, READ);
+        } catch (IOException directoriesCanNotBeOpened) {
+            // some platforms, Windows among them, do not let directories be opened, nor need them synced
+            return;
+        }
+        try (FileChannel syncedDirectory = directoryChannel) {
+            syncedDirectory.force(true);
+        }
+    }
+}
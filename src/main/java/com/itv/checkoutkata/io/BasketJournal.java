@@ -0,0 +1,444 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.Item;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+import static com.itv.checkoutkata.ErrorMessages.BASKET_JOURNAL_CLOSED;
+import static com.itv.checkoutkata.ErrorMessages.NOT_A_BASKET_JOURNAL_FILE;
+import static com.itv.checkoutkata.ErrorMessages.SKU_NAME_TOO_LONG;
+import static com.itv.checkoutkata.io.BinaryPricingCatalogFormat.MAXIMUM_NAME_BYTES;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// An append-only journal of the scans and removals of every open basket, so that the baskets of a till that dies can
+// be rebuilt by replaying it on restart.
+//
+// Appending only copies the event into a buffer in memory. A committer thread writes everything buffered with one
+// write and one fsync, as soon as someone waits for an event to be durable or every commitInterval otherwise, so the
+// events of many tills share an fsync: group commit. Compaction rewrites the journal with just the open baskets.
+//
+// The file is a header, then records of length, CRC32 and payload. A record torn by a crash fails its length or CRC
+// check, and replay stops at it.
+public class BasketJournal implements AutoCloseable {
+
+    public static final Duration DEFAULT_COMMIT_INTERVAL = Duration.ofMillis(2);
+
+    static final int MAGIC = 0x434B424A;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+    static final int RECORD_HEADER_BYTES = 2 * Integer.BYTES;
+    static final int MAXIMUM_PAYLOAD_BYTES = 1 + Long.BYTES + Short.BYTES + MAXIMUM_NAME_BYTES;
+
+    static final byte SCANNED = 1;
+    static final byte REMOVED = 2;
+    static final byte CLOSED = 3;
+
+    private static final int INITIAL_BUFFER_BYTES = 1 << 16;
+
+    private final Path journalFile;
+    private final long commitIntervalNanos;
+    private final FileReplacer fileReplacer;
+    private final Map<Item, byte[]> encodedNames = new ConcurrentHashMap<>();
+    // only used under the lock
+    private final CRC32 crc32 = new CRC32();
+
+    // appenders fill pending under the lock, the committer swaps it for committing and writes that outside the lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition commitRequested = lock.newCondition();
+    private final Condition committed = lock.newCondition();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private ByteBuffer committing = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean waitingForCommit;
+    private boolean open = true;
+    private IOException failure;
+
+    // the channel is only ever written by the committer or by compaction, which hold the channel lock to do so
+    private final Object channelLock = new Object();
+    private final Object compactionLock = new Object();
+    private FileChannel channel;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final Thread committer;
+
+    private BasketJournal(Path journalFile, Duration commitInterval, FileReplacer fileReplacer) throws IOException {
+        this.journalFile = journalFile;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        this.fileReplacer = fileReplacer;
+        this.channel = openForAppending(journalFile);
+        this.committer = new Thread(this::commitUntilClosed, "basket-journal-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    public static BasketJournal open(Path journalFile) throws IOException {
+        return open(journalFile, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    public static BasketJournal open(Path journalFile, Duration commitInterval) throws IOException {
+        return open(journalFile, commitInterval, AtomicFiles::replace);
+    }
+
+    static BasketJournal open(Path journalFile, Duration commitInterval, FileReplacer fileReplacer) throws IOException {
+        return new BasketJournal(journalFile, commitInterval, fileReplacer);
+    }
+
+    // Each append returns the sequence number of its event, to be passed to awaitDurable when it has to survive a crash.
+    public long scanned(long basketId, Item item) {
+        return append(SCANNED, basketId, encodedNameOf(item));
+    }
+
+    public long removed(long basketId, Item item) {
+        return append(REMOVED, basketId, encodedNameOf(item));
+    }
+
+    public long closed(long basketId) {
+        return append(CLOSED, basketId, null);
+    }
+
+    // blocks until the event with the given sequence number, and every one before it, is on disk
+    public void awaitDurable(long sequence) throws InterruptedException {
+        lock.lock();
+        try {
+            while (durableSequence < sequence) {
+                throwIfUnusable();
+                waitingForCommit = true;
+                commitRequested.signal();
+                committed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long commits() {
+        return commits.get();
+    }
+
+    // The open baskets in the journal, each as its items and their quantities.
+    public static Map<Long, Map<Item, Integer>> replay(Path journalFile) throws IOException {
+        Map<Long, Map<Item, Integer>> openBaskets = new LinkedHashMap<>();
+        if (Files.exists(journalFile) && Files.size(journalFile) > 0) {
+            readValidRecords(journalFile, Files.size(journalFile), openBaskets);
+        }
+        return openBaskets;
+    }
+
+    // Rewrites the journal with one scan per unit of every open basket, dropping all events of closed ones.
+    //
+    // Appends and commits go on while the compacted file is built from a streamed read of the journal; the channel lock
+    // is only held again to copy across whatever was committed meanwhile and to swap the files.
+    public void compact() throws IOException {
+        synchronized (compactionLock) {
+            long compactedBytes;
+            synchronized (channelLock) {
+                commitPending();
+                compactedBytes = channel.position();
+            }
+
+            Map<Long, Map<Item, Integer>> openBaskets = new LinkedHashMap<>();
+            readValidRecords(journalFile, compactedBytes, openBaskets);
+
+            Path compactedFile = AtomicFiles.siblingOf(journalFile, ".compacting");
+            Files.deleteIfExists(compactedFile);
+            FileChannel compacted = openForAppending(compactedFile);
+
+            try {
+                ByteBuffer records = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+                CRC32 compactionCrc32 = new CRC32();
+                for (Map.Entry<Long, Map<Item, Integer>> openBasket : openBaskets.entrySet()) {
+                    for (Map.Entry<Item, Integer> quantity : openBasket.getValue().entrySet()) {
+                        for (int unit = 0; unit < quantity.getValue(); unit++) {
+                            records = writeRecord(records, compactionCrc32, SCANNED, openBasket.getKey(), encodedNameOf(quantity.getKey()));
+                            if (records.position() > INITIAL_BUFFER_BYTES) {
+                                writeFully(compacted, records);
+                            }
+                        }
+                    }
+                }
+                writeFully(compacted, records);
+
+                synchronized (channelLock) {
+                    commitPending();
+                    transferFully(channel, compactedBytes, channel.position(), compacted);
+                    compacted.force(true);
+
+                    // the old channel stays the journal until the rename has happened, so a failed rename leaves
+                    // the journal appendable and the compacted file is just thrown away
+                    fileReplacer.replace(compactedFile, journalFile);
+                    FileChannel replaced = channel;
+                    channel = compacted;
+                    compacted = null;
+                    replaced.close();
+                }
+            } finally {
+                if (compacted != null) {
+                    compacted.close();
+                    Files.deleteIfExists(compactedFile);
+                }
+            }
+        }
+    }
+
+    // Commits everything appended so far and stops the committer. If interrupted while the committer finishes, the
+    // journal is still closed and the interrupt is left set for the caller.
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            open = false;
+            commitRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            committer.join();
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (channelLock) {
+            commitPending();
+            channel.close();
+        }
+    }
+
+    private long append(byte type, long basketId, byte[] encodedName) {
+        lock.lock();
+        try {
+            throwIfUnusable();
+            pending = writeRecord(pending, crc32, type, basketId, encodedName);
+            return ++appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void commitUntilClosed() {
+        try {
+            while (true) {
+                lock.lock();
+                try {
+                    if (open && !waitingForCommit) {
+                        commitRequested.awaitNanos(commitIntervalNanos);
+                    }
+                    if (!open) {
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                synchronized (channelLock) {
+                    commitPending();
+                }
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        } catch (IOException failure) {
+            failWith(failure);
+        }
+    }
+
+    // must hold the channel lock
+    private void commitPending() throws IOException {
+        long sequence;
+        lock.lock();
+        try {
+            waitingForCommit = false;
+            if (pending.position() == 0) {
+                return;
+            }
+            ByteBuffer toCommit = pending;
+            pending = committing;
+            committing = toCommit;
+            sequence = appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+
+        writeFully(channel, committing);
+        channel.force(false);
+        commits.incrementAndGet();
+
+        lock.lock();
+        try {
+            durableSequence = sequence;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void failWith(IOException failure) {
+        lock.lock();
+        try {
+            this.failure = failure;
+            committed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // must hold the lock
+    private void throwIfUnusable() {
+        if (failure != null) {
+            throw new UncheckedIOException(BASKET_JOURNAL_CLOSED, failure);
+        }
+        if (!open) {
+            throw new IllegalStateException(BASKET_JOURNAL_CLOSED);
+        }
+    }
+
+    // returns the buffer, which may have been grown to fit the record
+    private static ByteBuffer writeRecord(ByteBuffer buffer, CRC32 crc32, byte type, long basketId, byte[] encodedName) {
+        int payloadBytes = 1 + Long.BYTES + (encodedName == null ? 0 : Short.BYTES + encodedName.length);
+        if (buffer.remaining() < RECORD_HEADER_BYTES + payloadBytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + RECORD_HEADER_BYTES + payloadBytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        int recordStart = buffer.position();
+        buffer.putInt(payloadBytes);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putLong(basketId);
+        if (encodedName != null) {
+            buffer.putShort((short) encodedName.length);
+            buffer.put(encodedName);
+        }
+
+        crc32.reset();
+        crc32.update(buffer.array(), recordStart + RECORD_HEADER_BYTES, payloadBytes);
+        buffer.putInt(recordStart + Integer.BYTES, (int) crc32.getValue());
+        return buffer;
+    }
+
+    private byte[] encodedNameOf(Item item) {
+        return encodedNames.computeIfAbsent(item, newItem -> {
+            byte[] encodedName = newItem.getName().getBytes(StandardCharsets.UTF_8);
+            if (encodedName.length > MAXIMUM_NAME_BYTES) {
+                throw new IllegalArgumentException(SKU_NAME_TOO_LONG + newItem.getName());
+            }
+            return encodedName;
+        });
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // positions the channel after the last valid record, so a torn tail is overwritten by the next commit
+    private static FileChannel openForAppending(Path journalFile) throws IOException {
+        long validBytes = Files.exists(journalFile) && Files.size(journalFile) > 0
+                ? readValidRecords(journalFile, Files.size(journalFile), new LinkedHashMap<>())
+                : 0;
+
+        FileChannel channel = FileChannel.open(journalFile, CREATE, READ, WRITE);
+        if (validBytes == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION);
+            header.flip();
+            channel.truncate(0);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            validBytes = HEADER_BYTES;
+        }
+
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        return channel;
+    }
+
+    private static void transferFully(FileChannel from, long position, long end, FileChannel to) throws IOException {
+        while (position < end) {
+            position += from.transferTo(position, end - position, to);
+        }
+    }
+
+    // Replays every valid record in the first journalBytes of the file into the open baskets and returns how many bytes
+    // they take up. The file is streamed, a record at a time, so only the open baskets are held in memory.
+    private static long readValidRecords(Path journalFile, long journalBytes, Map<Long, Map<Item, Integer>> openBaskets) throws IOException {
+        try (DataInputStream journal = new DataInputStream(new BufferedInputStream(Files.newInputStream(journalFile)))) {
+            if (journalBytes < HEADER_BYTES || journal.readInt() != MAGIC || journal.readInt() != FORMAT_VERSION) {
+                throw new IllegalArgumentException(NOT_A_BASKET_JOURNAL_FILE);
+            }
+
+            byte[] payload = new byte[MAXIMUM_PAYLOAD_BYTES];
+            CRC32 crc32 = new CRC32();
+            long position = HEADER_BYTES;
+
+            while (journalBytes - position >= RECORD_HEADER_BYTES) {
+                int payloadBytes = journal.readInt();
+                int crc = journal.readInt();
+                if (payloadBytes <= 0 || payloadBytes > MAXIMUM_PAYLOAD_BYTES || payloadBytes > journalBytes - position - RECORD_HEADER_BYTES) {
+                    return position;
+                }
+
+                journal.readFully(payload, 0, payloadBytes);
+                crc32.reset();
+                crc32.update(payload, 0, payloadBytes);
+                if ((int) crc32.getValue() != crc) {
+                    return position;
+                }
+
+                position += RECORD_HEADER_BYTES + payloadBytes;
+                replayRecord(ByteBuffer.wrap(payload, 0, payloadBytes), openBaskets);
+            }
+
+            return position;
+        }
+    }
+
+    private static void replayRecord(ByteBuffer record, Map<Long, Map<Item, Integer>> openBaskets) {
+        byte type = record.get();
+        long basketId = record.getLong();
+        if (type == CLOSED) {
+            openBaskets.remove(basketId);
+            return;
+        }
+
+        byte[] encodedName = new byte[record.getShort() & 0xFFFF];
+        record.get(encodedName);
+        Item item = new Item(new String(encodedName, StandardCharsets.UTF_8));
+        Map<Item, Integer> quantities = openBaskets.computeIfAbsent(basketId, newBasketId -> new LinkedHashMap<>());
+
+        if (type == SCANNED) {
+            quantities.merge(item, 1, Integer::sum);
+        } else if (quantities.merge(item, -1, Integer::sum) <= 0) {
+            quantities.remove(item);
+        }
+    }
+
+    // how compaction renames the compacted file over the journal: AtomicFiles::replace, unless a test needs it to fail
+    interface FileReplacer {
+        void replace(Path replacement, Path file) throws IOException;
+    }
+}
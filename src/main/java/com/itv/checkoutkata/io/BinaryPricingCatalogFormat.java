@@ -0,0 +1,38 @@
+package com.itv.checkoutkata.io;
+
+// Layout of a binary pricing catalog file, big endian throughout:
+//
+//   header   int magic, int format version, int rule count, int table slots
+//   table    one int per slot: the file offset of the record hashed into it, 0 for a free slot
+//   records  int name hash, unsigned short name length, UTF-8 name bytes,
+//            long unit price, long multi price (both in minor units), int multi priced quantity
+//
+// The table is open addressing with linear probing over a power-of-two number of slots, at most half full.
+final class BinaryPricingCatalogFormat {
+
+    static final int MAGIC = 0x434B5043; // "CKPC"
+    static final int FORMAT_VERSION = 1;
+
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+    static final int FREE_SLOT = 0;
+
+    static final int MAXIMUM_NAME_BYTES = 0xFFFF;
+
+    static final int RECORD_FIXED_BYTES = Integer.BYTES + Short.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private BinaryPricingCatalogFormat() {
+    }
+
+    static int slotsFor(int ruleCount) {
+        int slots = 16;
+        while (slots < ruleCount * 2) {
+            slots <<= 1;
+        }
+        return slots;
+    }
+
+    static int firstSlotOf(int nameHash, int slots) {
+        int hash = nameHash * 0x9E3779B9;
+        return (hash ^ hash >>> 16) & (slots - 1);
+    }
+}
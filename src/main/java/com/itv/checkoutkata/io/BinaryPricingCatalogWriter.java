@@ -0,0 +1,97 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.itv.checkoutkata.ErrorMessages.PRICING_CATALOG_FILE_TOO_LARGE;
+import static com.itv.checkoutkata.ErrorMessages.SKU_NAME_TOO_LONG;
+import static com.itv.checkoutkata.io.BinaryPricingCatalogFormat.*;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// Writes pricing rules into the binary catalog format read by MappedPricingCatalog, replacing any catalog file already
+// there atomically.
+public class BinaryPricingCatalogWriter {
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+
+    public void write(Map<Item, PricingRule> pricingRules, Path catalogFile) throws IOException {
+
+        checkoutValidator.validatePricingCatalog(pricingRules);
+
+        List<PricingRule> rules = new ArrayList<>(pricingRules.values());
+        List<byte[]> names = new ArrayList<>(rules.size());
+
+        int slots = slotsFor(rules.size());
+        int[] table = new int[slots];
+        long offset = HEADER_BYTES + (long) slots * Integer.BYTES;
+
+        for (PricingRule pricingRule : rules) {
+            String name = pricingRule.getItem().getName();
+            byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (nameBytes.length > MAXIMUM_NAME_BYTES) {
+                throw new IllegalArgumentException(SKU_NAME_TOO_LONG + name);
+            }
+            names.add(nameBytes);
+
+            int slot = firstSlotOf(name.hashCode(), slots);
+            while (table[slot] != FREE_SLOT) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            table[slot] = (int) offset;
+
+            offset += RECORD_FIXED_BYTES + nameBytes.length;
+            if (offset > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(PRICING_CATALOG_FILE_TOO_LARGE);
+            }
+        }
+
+        // tills may have the current file mapped, so it is replaced whole rather than rewritten in place
+        Path writtenFile = AtomicFiles.siblingOf(catalogFile, ".writing");
+        try (FileChannel channel = FileChannel.open(writtenFile, CREATE, WRITE, TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(rules.size());
+            out.writeInt(slots);
+
+            for (int slotOffset : table) {
+                out.writeInt(slotOffset);
+            }
+
+            for (int rule = 0; rule < rules.size(); rule++) {
+                PricingRule pricingRule = rules.get(rule);
+                byte[] nameBytes = names.get(rule);
+
+                out.writeInt(pricingRule.getItem().getName().hashCode());
+                out.writeShort(nameBytes.length);
+                out.write(nameBytes);
+                out.writeLong(pricingRule.getUnitPriceInMinorUnits());
+                out.writeLong(pricingRule.getMultiPriceInMinorUnits());
+                out.writeInt(pricingRule.getMultiPricedQuantity());
+            }
+
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException failure) {
+            Files.deleteIfExists(writtenFile);
+            throw failure;
+        }
+
+        AtomicFiles.replace(writtenFile, catalogFile);
+    }
+}
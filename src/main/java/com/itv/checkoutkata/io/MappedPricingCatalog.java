@@ -0,0 +1,153 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import static com.itv.checkoutkata.ErrorMessages.NOT_A_PRICING_CATALOG_FILE;
+import static com.itv.checkoutkata.io.BinaryPricingCatalogFormat.*;
+
+// A pricing catalog served straight from a memory-mapped catalog file. Opening one costs a header check, whatever
+// the size of the catalog, and rules stay off heap: a lookup probes the mapped hash table and reads the prices out of
+// the mapped record. Only absolute reads are used on the buffer so any number of threads can share one instance.
+public final class MappedPricingCatalog {
+
+    // what priceInMinorUnitsIfPriced returns for an item with no rule; no rule in a catalog file has a negative price
+    public static final long UNPRICED = -1;
+
+    private static final int NOT_FOUND = -1;
+
+    private final ByteBuffer catalog;
+    private final int size;
+    private final int slots;
+
+    private MappedPricingCatalog(ByteBuffer catalog) {
+        this.catalog = catalog;
+
+        if (catalog.capacity() < HEADER_BYTES || catalog.getInt(0) != MAGIC || catalog.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException(NOT_A_PRICING_CATALOG_FILE);
+        }
+
+        this.size = catalog.getInt(8);
+        this.slots = catalog.getInt(12);
+
+        // a truncated or corrupt header would otherwise surface later as a stray read or a probe that never ends
+        if (slots <= 0 || Integer.bitCount(slots) != 1 || size < 0 || size > slots / 2
+                || catalog.capacity() < HEADER_BYTES + (long) slots * Integer.BYTES + (long) size * RECORD_FIXED_BYTES) {
+            throw new IllegalArgumentException(NOT_A_PRICING_CATALOG_FILE);
+        }
+    }
+
+    public static MappedPricingCatalog open(Path catalogFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(catalogFile, StandardOpenOption.READ)) {
+            // the mapping outlives the channel
+            return new MappedPricingCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasRuleFor(Item item) {
+        return recordOf(item) != NOT_FOUND;
+    }
+
+    public long priceInMinorUnits(Item item, int quantity) {
+        return priceInMinorUnitsAt(requireRecordOf(item), quantity);
+    }
+
+    // One probe of the hash table whether or not the item has a rule, for checkouts that collect the unpriced items.
+    public long priceInMinorUnitsIfPriced(Item item, int quantity) {
+        int record = recordOf(item);
+        return record == NOT_FOUND ? UNPRICED : priceInMinorUnitsAt(record, quantity);
+    }
+
+    // copies the rule onto the heap, for callers that need the PricingRule itself
+    public PricingRule ruleFor(Item item) {
+        int record = recordOf(item);
+        if (record == NOT_FOUND) {
+            return null;
+        }
+
+        int prices = pricesOf(record);
+
+        return PricingRule.builder()
+                .item(item)
+                .unitPriceInMinorUnits(catalog.getLong(prices))
+                .multiPriceInMinorUnits(catalog.getLong(prices + Long.BYTES))
+                .multiPricedQuantity(catalog.getInt(prices + 2 * Long.BYTES))
+                .build();
+    }
+
+    private long priceInMinorUnitsAt(int record, int quantity) {
+        int prices = pricesOf(record);
+
+        return PricingRule.priceInMinorUnits(
+                catalog.getLong(prices),
+                catalog.getLong(prices + Long.BYTES),
+                catalog.getInt(prices + 2 * Long.BYTES),
+                quantity);
+    }
+
+    private int nameLengthOf(int record) {
+        return catalog.getShort(record + Integer.BYTES) & 0xFFFF;
+    }
+
+    private int pricesOf(int record) {
+        return record + Integer.BYTES + Short.BYTES + nameLengthOf(record);
+    }
+
+    private int requireRecordOf(Item item) {
+        int record = recordOf(item);
+        if (record == NOT_FOUND) {
+            throw new UnpricedItemsException(Collections.singletonList(item));
+        }
+        return record;
+    }
+
+    private int recordOf(Item item) {
+        String name = item.getName();
+        int nameHash = name.hashCode();
+        byte[] nameBytes = null;
+
+        for (int slot = firstSlotOf(nameHash, slots); ; slot = (slot + 1) & (slots - 1)) {
+            int record = catalog.getInt(HEADER_BYTES + slot * Integer.BYTES);
+            if (record == FREE_SLOT) {
+                return NOT_FOUND;
+            }
+
+            if (catalog.getInt(record) == nameHash) {
+                if (nameBytes == null) {
+                    nameBytes = name.getBytes(StandardCharsets.UTF_8);
+                }
+                if (nameMatches(record, nameBytes)) {
+                    return record;
+                }
+            }
+        }
+    }
+
+    private boolean nameMatches(int record, byte[] nameBytes) {
+        int nameLength = nameLengthOf(record);
+        if (nameLength != nameBytes.length) {
+            return false;
+        }
+
+        int name = record + Integer.BYTES + Short.BYTES;
+        for (int index = 0; index < nameLength; index++) {
+            if (catalog.get(name + index) != nameBytes[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
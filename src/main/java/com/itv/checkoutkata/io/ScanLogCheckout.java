@@ -0,0 +1,197 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.SkuQuantities;
+import com.itv.checkoutkata.SkuRegistry;
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.itv.checkoutkata.ErrorMessages.MALFORMED_SCAN_LINE;
+
+// Replays a point-of-sale scan log, one "transactionId<delimiter>skuName" line per scan, and writes one
+// "transactionId<delimiter>total" line per transaction with the total in minor units. Consecutive lines of the same
+// transaction make up its basket, the way tills write their logs. The log is streamed through one reused buffer and
+// each basket is priced and written as soon as its last line has gone past, so memory is bounded by the longest line
+// and the largest basket, never by the size of the log.
+public class ScanLogCheckout {
+
+    public static final String UNPRICED = "UNPRICED";
+
+    private static final int DEFAULT_BUFFER_BYTES = 1 << 16;
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+
+    private final PricingCatalog pricingCatalog;
+    private final byte delimiter;
+    private final int bufferBytes;
+
+    public ScanLogCheckout(PricingCatalog pricingCatalog, char delimiter) {
+        this(pricingCatalog, delimiter, DEFAULT_BUFFER_BYTES);
+    }
+
+    public ScanLogCheckout(PricingCatalog pricingCatalog, char delimiter, int bufferBytes) {
+        checkoutValidator.validateForMissingPricingCatalog(pricingCatalog);
+        checkoutValidator.validateScanLogDelimiter(delimiter);
+        this.pricingCatalog = pricingCatalog;
+        this.delimiter = (byte) delimiter;
+        this.bufferBytes = bufferBytes;
+    }
+
+    public ScanLogSummary checkout(Path scanLog, Path totals) throws IOException {
+        try (FileChannel scanLogChannel = FileChannel.open(scanLog, StandardOpenOption.READ);
+             Writer totalsWriter = Files.newBufferedWriter(totals, StandardCharsets.UTF_8)) {
+            return checkout(scanLogChannel, totalsWriter);
+        }
+    }
+
+    public ScanLogSummary checkout(ReadableByteChannel scanLog, Writer totals) throws IOException {
+        return new Replay(totals).replay(scanLog);
+    }
+
+    // the state of one replay; everything in here is reused from basket to basket
+    private class Replay {
+
+        private final Writer totals;
+        private final SkuRegistry skuRegistry = pricingCatalog.getSkuRegistry();
+        private final SkuQuantities basket = new SkuQuantities();
+
+        private byte[] transactionId = new byte[32];
+        private int transactionIdLength = -1;
+        private boolean basketIsUnpriced;
+
+        private long lineNumber;
+        private long baskets;
+        private long scans;
+        private long unpricedBaskets;
+        private long totalInMinorUnits;
+
+        private Replay(Writer totals) {
+            this.totals = totals;
+        }
+
+        private ScanLogSummary replay(ReadableByteChannel scanLog) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(bufferBytes);
+            byte[] bytes = buffer.array();
+            boolean endOfLog = false;
+
+            while (!endOfLog) {
+                endOfLog = scanLog.read(buffer) == -1;
+
+                int end = buffer.position();
+                int lineStart = 0;
+
+                for (int index = 0; index < end; index++) {
+                    if (bytes[index] == '\n') {
+                        line(bytes, lineStart, index);
+                        lineStart = index + 1;
+                    }
+                }
+
+                if (endOfLog && lineStart < end) {
+                    // the last line of a log need not end with a newline
+                    line(bytes, lineStart, end);
+                    lineStart = end;
+                } else if (lineStart == 0 && end == bytes.length) {
+                    throw new IllegalArgumentException(MALFORMED_SCAN_LINE + (lineNumber + 1));
+                }
+
+                // keep the unfinished line at the front of the buffer for the next read
+                buffer.flip();
+                buffer.position(lineStart);
+                buffer.compact();
+            }
+
+            endBasket();
+            totals.flush();
+
+            return new ScanLogSummary(baskets, scans, unpricedBaskets, totalInMinorUnits);
+        }
+
+        private void line(byte[] bytes, int start, int end) throws IOException {
+            lineNumber++;
+
+            if (end > start && bytes[end - 1] == '\r') {
+                end--;
+            }
+            if (end == start) {
+                return;
+            }
+
+            int split = start;
+            while (split < end && bytes[split] != delimiter) {
+                split++;
+            }
+            if (split == start || split >= end - 1) {
+                throw new IllegalArgumentException(MALFORMED_SCAN_LINE + lineNumber);
+            }
+
+            if (!isCurrentTransaction(bytes, start, split)) {
+                endBasket();
+                startBasket(bytes, start, split);
+            }
+
+            scans++;
+            int skuId = skuRegistry.idOf(new String(bytes, split + 1, end - split - 1, StandardCharsets.UTF_8));
+            if (pricingCatalog.hasRuleFor(skuId)) {
+                basket.add(skuId, 1);
+            } else {
+                basketIsUnpriced = true;
+            }
+        }
+
+        private boolean isCurrentTransaction(byte[] bytes, int start, int end) {
+            if (end - start != transactionIdLength) {
+                return false;
+            }
+            for (int index = 0; index < transactionIdLength; index++) {
+                if (transactionId[index] != bytes[start + index]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void startBasket(byte[] bytes, int start, int end) {
+            int length = end - start;
+            if (length > transactionId.length) {
+                transactionId = Arrays.copyOf(transactionId, length * 2);
+            }
+            System.arraycopy(bytes, start, transactionId, 0, length);
+            transactionIdLength = length;
+        }
+
+        private void endBasket() throws IOException {
+            if (transactionIdLength < 0) {
+                return;
+            }
+
+            baskets++;
+            totals.write(new String(transactionId, 0, transactionIdLength, StandardCharsets.UTF_8));
+            totals.write((char) delimiter);
+
+            if (basketIsUnpriced) {
+                unpricedBaskets++;
+                totals.write(UNPRICED);
+            } else {
+                long basketTotal = pricingCatalog.priceInMinorUnits(basket);
+                totalInMinorUnits += basketTotal;
+                totals.write(Long.toString(basketTotal));
+            }
+            totals.write('\n');
+
+            basket.clear();
+            basketIsUnpriced = false;
+            transactionIdLength = -1;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.itv.checkoutkata.io;
+
+import lombok.Data;
+
+@Data
+public class ScanLogSummary {
+
+    private final long baskets;
+    private final long scans;
+
+    // baskets holding at least one SKU without a pricing rule; they are written out as UNPRICED
+    private final long unpricedBaskets;
+
+    private final long totalInMinorUnits;
+}
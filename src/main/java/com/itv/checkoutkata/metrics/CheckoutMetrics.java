@@ -0,0 +1,26 @@
+package com.itv.checkoutkata.metrics;
+
+// Where the CheckoutEngine reports what it is doing when metrics are switched on. Implementations are called from
+// every till thread at once, so they must be thread safe and cheap.
+public interface CheckoutMetrics {
+
+    CheckoutMetrics NONE = new CheckoutMetrics() {
+        @Override
+        public void recordPhase(CheckoutPhase checkoutPhase, long elapsedNanos) {
+        }
+
+        @Override
+        public void recordPricingPath(PricingPath pricingPath) {
+        }
+
+        @Override
+        public void recordBasketSize(int numberOfItems) {
+        }
+    };
+
+    void recordPhase(CheckoutPhase checkoutPhase, long elapsedNanos);
+
+    void recordPricingPath(PricingPath pricingPath);
+
+    void recordBasketSize(int numberOfItems);
+}
@@ -0,0 +1,7 @@
+package com.itv.checkoutkata.metrics;
+
+public enum CheckoutPhase {
+    VALIDATION,
+    GROUPING,
+    PRICING
+}
@@ -0,0 +1,75 @@
+package com.itv.checkoutkata.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// A lock-free, fixed-size histogram of non-negative longs in the style of HdrHistogram: values are counted in buckets
+// that double in width per power of two and are split into SUB_BUCKETS linear sub-buckets, so every recorded value is
+// reported to within 1 / SUB_BUCKETS of itself while the whole long range fits into a few thousand counters.
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(Long.MAX_VALUE) + 1);
+
+    public void record(long value) {
+        counts.incrementAndGet(indexOf(Math.max(0, value)));
+    }
+
+    // adds every value recorded by the other histogram, e.g. to merge per-thread histograms once a run is over
+    public void add(Histogram other) {
+        for (int index = 0; index < counts.length(); index++) {
+            counts.addAndGet(index, other.counts.get(index));
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            count += counts.get(index);
+        }
+        return count;
+    }
+
+    // the highest value of the bucket the given percentile, 0 to 100, falls into; 0 if nothing was recorded
+    public long percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+
+        for (int index = 0; index < counts.length(); index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return highestValueOf(index);
+            }
+        }
+        return highestValueOf(counts.length() - 1);
+    }
+
+    public long max() {
+        return percentile(100);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> magnitude) - SUB_BUCKETS;
+        return SUB_BUCKETS + magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        long lowestValue = subBucket << magnitude;
+        return lowestValue + (1L << magnitude) - 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.itv.checkoutkata.metrics;
+
+import com.itv.checkoutkata.PricingRule;
+
+// Which of the pricing rule's paths priced a quantity of an item.
+public enum PricingPath {
+    UNIT_PRICE,
+    EXACT_MULTI_PRICE,
+    MIX_PRICE;
+
+    public static PricingPath of(PricingRule pricingRule, int numberOfItems) {
+        if (!pricingRule.hasMultiPrice() || !pricingRule.isMultiPriceEligible(numberOfItems)) {
+            return UNIT_PRICE;
+        }
+        return numberOfItems == pricingRule.getMultiPricedQuantity() ? EXACT_MULTI_PRICE : MIX_PRICE;
+    }
+}
@@ -0,0 +1,50 @@
+package com.itv.checkoutkata.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps everything in memory: a latency histogram per checkout phase, a counter per pricing path and a histogram of
+// basket sizes, ready to be scraped by whatever reports on the tills.
+public class RecordingCheckoutMetrics implements CheckoutMetrics {
+
+    private final Map<CheckoutPhase, Histogram> phaseLatencies = new EnumMap<>(CheckoutPhase.class);
+    private final Map<PricingPath, LongAdder> pricingPaths = new EnumMap<>(PricingPath.class);
+    private final Histogram basketSizes = new Histogram();
+
+    public RecordingCheckoutMetrics() {
+        for (CheckoutPhase checkoutPhase : CheckoutPhase.values()) {
+            phaseLatencies.put(checkoutPhase, new Histogram());
+        }
+        for (PricingPath pricingPath : PricingPath.values()) {
+            pricingPaths.put(pricingPath, new LongAdder());
+        }
+    }
+
+    @Override
+    public void recordPhase(CheckoutPhase checkoutPhase, long elapsedNanos) {
+        phaseLatencies.get(checkoutPhase).record(elapsedNanos);
+    }
+
+    @Override
+    public void recordPricingPath(PricingPath pricingPath) {
+        pricingPaths.get(pricingPath).increment();
+    }
+
+    @Override
+    public void recordBasketSize(int numberOfItems) {
+        basketSizes.record(numberOfItems);
+    }
+
+    public Histogram latenciesOf(CheckoutPhase checkoutPhase) {
+        return phaseLatencies.get(checkoutPhase);
+    }
+
+    public long countOf(PricingPath pricingPath) {
+        return pricingPaths.get(pricingPath).sum();
+    }
+
+    public Histogram basketSizes() {
+        return basketSizes;
+    }
+}
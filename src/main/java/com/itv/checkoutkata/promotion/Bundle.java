@@ -0,0 +1,37 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.Money;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PROMOTION;
+
+// A mix and match deal across items, e.g. any sandwich + drink + snack for 3.50. Every component takes one unit of
+// any of its items, and the whole bundle costs its price instead of what the pricing rules would charge.
+@Data
+public class Bundle {
+
+    private final List<Set<Item>> components;
+    private final long priceInMinorUnits;
+
+    public Bundle(List<Set<Item>> components, double price) {
+        if (components == null || components.isEmpty() || price < 0
+                || components.stream().anyMatch(component -> component == null || component.isEmpty())) {
+            throw new IllegalArgumentException(INVALID_PROMOTION + components + " for " + price);
+        }
+        ImmutableList.Builder<Set<Item>> immutableComponents = ImmutableList.builder();
+        components.forEach(component -> immutableComponents.add(ImmutableSet.copyOf(component)));
+
+        this.components = immutableComponents.build();
+        this.priceInMinorUnits = Money.toMinorUnits(price);
+    }
+
+    public double getPrice() {
+        return Money.toMajorUnits(priceInMinorUnits);
+    }
+}
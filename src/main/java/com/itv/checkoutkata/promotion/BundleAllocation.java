@@ -0,0 +1,22 @@
+package com.itv.checkoutkata.promotion;
+
+import com.itv.checkoutkata.Money;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BundleAllocation {
+
+    private final long totalInMinorUnits;
+
+    // one entry per bundle sold, the remaining units are priced by their pricing rules
+    private final List<Bundle> bundles;
+
+    // false when the search ran out of budget and the greedy allocation was used instead
+    private final boolean optimal;
+
+    public double getTotal() {
+        return Money.toMajorUnits(totalInMinorUnits);
+    }
+}
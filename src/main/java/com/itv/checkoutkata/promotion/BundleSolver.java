@@ -0,0 +1,382 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableList;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.SkuQuantities;
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Finds the cheapest split of a basket into bundles plus units priced by their own pricing rules. Bundles that share
+// items make that a combinatorial search, so this is a depth first search over the remaining quantities of the bundled
+// SKUs, memoized on those quantities as applying the same bundles in any order leads to the same state. Bundles are
+// split into groups that share no SKUs and every group is searched on its own, so unrelated deals do not multiply
+// each other's states.
+//
+// The search of a basket is allowed a fixed number of steps. Groups it can not finish in time get a greedy allocation,
+// which keeps applying whichever bundle saves the most, so no basket can take longer than the budget allows.
+public class BundleSolver {
+
+    public static final int DEFAULT_MAXIMUM_SEARCH_STEPS = 10_000;
+
+    private static final int NO_BUNDLE = -1;
+
+    private final PricingCatalog pricingCatalog;
+    private final int maximumSearchSteps;
+
+    private final List<BundleGroup> bundleGroups = new ArrayList<>();
+
+    // the group and the index within it of every bundled SKU id
+    private final int[] bundleGroupBySkuId;
+    private final int[] localSkuBySkuId;
+
+    public BundleSolver(PricingCatalog pricingCatalog, List<Bundle> bundles) {
+        this(pricingCatalog, bundles, DEFAULT_MAXIMUM_SEARCH_STEPS);
+    }
+
+    public BundleSolver(PricingCatalog pricingCatalog, List<Bundle> bundles, int maximumSearchSteps) {
+        new CheckoutValidator().validateBundles(pricingCatalog, bundles, maximumSearchSteps);
+
+        this.pricingCatalog = pricingCatalog;
+        this.maximumSearchSteps = maximumSearchSteps;
+
+        int skus = pricingCatalog.getSkuRegistry().size();
+        int[] linkedSkuIds = new int[skus];
+        for (int skuId = 0; skuId < skus; skuId++) {
+            linkedSkuIds[skuId] = skuId;
+        }
+        for (Bundle bundle : bundles) {
+            int firstSkuId = skuIdsOf(bundle)[0];
+            for (int skuId : skuIdsOf(bundle)) {
+                linkedSkuIds[rootOf(linkedSkuIds, skuId)] = rootOf(linkedSkuIds, firstSkuId);
+            }
+        }
+
+        Map<Integer, List<Bundle>> bundlesByRootSkuId = new LinkedHashMap<>();
+        for (Bundle bundle : bundles) {
+            int rootSkuId = rootOf(linkedSkuIds, skuIdsOf(bundle)[0]);
+            bundlesByRootSkuId.computeIfAbsent(rootSkuId, newRootSkuId -> new ArrayList<>()).add(bundle);
+        }
+
+        this.bundleGroupBySkuId = new int[skus];
+        this.localSkuBySkuId = new int[skus];
+        Arrays.fill(bundleGroupBySkuId, -1);
+        for (List<Bundle> groupedBundles : bundlesByRootSkuId.values()) {
+            bundleGroups.add(new BundleGroup(bundleGroups.size(), groupedBundles));
+        }
+    }
+
+    public PricingCatalog getPricingCatalog() {
+        return pricingCatalog;
+    }
+
+    public BundleAllocation solve(SkuQuantities skuQuantities) {
+        int[][] quantitiesByGroup = new int[bundleGroups.size()][];
+        for (BundleGroup bundleGroup : bundleGroups) {
+            quantitiesByGroup[bundleGroup.index] = new int[bundleGroup.skuIds.length];
+        }
+
+        long total = 0;
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId == SkuQuantities.NO_SKU) {
+                continue;
+            }
+
+            int bundleGroup = skuId < bundleGroupBySkuId.length ? bundleGroupBySkuId[skuId] : -1;
+            if (bundleGroup < 0) {
+                total += pricingCatalog.priceInMinorUnits(skuId, skuQuantities.quantityAt(slot));
+            } else {
+                quantitiesByGroup[bundleGroup][localSkuBySkuId[skuId]] = skuQuantities.quantityAt(slot);
+            }
+        }
+
+        SearchBudget searchBudget = new SearchBudget();
+        List<Bundle> appliedBundles = new ArrayList<>();
+        boolean optimal = true;
+
+        for (BundleGroup bundleGroup : bundleGroups) {
+            BundleAllocation groupAllocation;
+            try {
+                groupAllocation = bundleGroup.cheapestAllocationOf(quantitiesByGroup[bundleGroup.index], searchBudget);
+            } catch (SearchBudgetExhausted searchBudgetExhausted) {
+                groupAllocation = bundleGroup.greedyAllocationOf(quantitiesByGroup[bundleGroup.index]);
+            }
+
+            total += groupAllocation.getTotalInMinorUnits();
+            appliedBundles.addAll(groupAllocation.getBundles());
+            optimal &= groupAllocation.isOptimal();
+        }
+
+        return new BundleAllocation(total, appliedBundles, optimal);
+    }
+
+    private int[] skuIdsOf(Bundle bundle) {
+        return bundle.getComponents().stream()
+                .flatMap(Set::stream)
+                .mapToInt(pricingCatalog::skuIdOf)
+                .distinct()
+                .toArray();
+    }
+
+    private static int rootOf(int[] linkedSkuIds, int skuId) {
+        while (linkedSkuIds[skuId] != skuId) {
+            linkedSkuIds[skuId] = linkedSkuIds[linkedSkuIds[skuId]];
+            skuId = linkedSkuIds[skuId];
+        }
+        return skuId;
+    }
+
+    // Bundles that share SKUs, directly or through other bundles, with their SKUs numbered locally so that a search
+    // state is a small dense quantity array.
+    private final class BundleGroup {
+
+        private final int index;
+        private final List<Bundle> bundles;
+        private final int[] skuIds;
+
+        // per bundle and component, the local SKUs the component accepts in ascending order
+        private final int[][][] acceptedSkus;
+        private final boolean[][] acceptsSameSkusAsPreviousComponent;
+
+        private BundleGroup(int index, List<Bundle> bundles) {
+            this.index = index;
+            this.bundles = ImmutableList.copyOf(bundles);
+            this.skuIds = bundles.stream().flatMapToInt(bundle -> Arrays.stream(skuIdsOf(bundle))).distinct().toArray();
+
+            for (int localSku = 0; localSku < skuIds.length; localSku++) {
+                bundleGroupBySkuId[skuIds[localSku]] = index;
+                localSkuBySkuId[skuIds[localSku]] = localSku;
+            }
+
+            this.acceptedSkus = new int[bundles.size()][][];
+            this.acceptsSameSkusAsPreviousComponent = new boolean[bundles.size()][];
+            for (int bundle = 0; bundle < bundles.size(); bundle++) {
+                List<Set<Item>> components = bundles.get(bundle).getComponents();
+                acceptedSkus[bundle] = new int[components.size()][];
+                acceptsSameSkusAsPreviousComponent[bundle] = new boolean[components.size()];
+
+                for (int component = 0; component < components.size(); component++) {
+                    acceptedSkus[bundle][component] = components.get(component).stream()
+                            .mapToInt(item -> localSkuBySkuId[pricingCatalog.skuIdOf(item)])
+                            .sorted()
+                            .toArray();
+                    acceptsSameSkusAsPreviousComponent[bundle][component] = component > 0
+                            && Arrays.equals(acceptedSkus[bundle][component], acceptedSkus[bundle][component - 1]);
+                }
+            }
+        }
+
+        private BundleAllocation cheapestAllocationOf(int[] quantities, SearchBudget searchBudget) {
+            Map<State, Solution> solutions = new HashMap<>();
+            Solution solution = cheapestSolutionOf(new State(quantities), solutions, searchBudget);
+            long total = solution.totalInMinorUnits;
+
+            List<Bundle> appliedBundles = new ArrayList<>();
+            while (solution.bundle != NO_BUNDLE) {
+                appliedBundles.add(bundles.get(solution.bundle));
+                solution = solutions.get(solution.next);
+            }
+
+            return new BundleAllocation(total, appliedBundles, true);
+        }
+
+        private Solution cheapestSolutionOf(State state, Map<State, Solution> solutions, SearchBudget searchBudget) {
+            Solution solution = solutions.get(state);
+            if (solution != null) {
+                return solution;
+            }
+
+            searchBudget.step();
+            solution = new Solution(unbundledPriceOf(state.quantities), NO_BUNDLE, null);
+            for (int bundle = 0; bundle < bundles.size(); bundle++) {
+                if (everyComponentHasUnitsIn(bundle, state.quantities)) {
+                    solution = cheapestFilling(bundle, 0, state.quantities.clone(), 0, solution, solutions, searchBudget);
+                }
+            }
+
+            solutions.put(state, solution);
+            return solution;
+        }
+
+        // Tries every way of filling the bundle's components from what remains, then the cheapest way on from there.
+        // Every partial filling is a step, dead ends included, so the budget bounds the work and not just the results.
+        private Solution cheapestFilling(int bundle, int component, int[] remaining, int firstChoice, Solution cheapest,
+                                         Map<State, Solution> solutions, SearchBudget searchBudget) {
+            searchBudget.step();
+            int[][] components = acceptedSkus[bundle];
+            if (component == components.length) {
+                State next = new State(remaining.clone());
+                long total = bundles.get(bundle).getPriceInMinorUnits()
+                        + cheapestSolutionOf(next, solutions, searchBudget).totalInMinorUnits;
+                return total < cheapest.totalInMinorUnits ? new Solution(total, bundle, next) : cheapest;
+            }
+
+            // a component accepting the same SKUs as the one before continues from its choice, so that the same
+            // units are not tried again in another order
+            int[] accepted = components[component];
+            int choice = acceptsSameSkusAsPreviousComponent[bundle][component] ? firstChoice : 0;
+
+            for (; choice < accepted.length; choice++) {
+                int localSku = accepted[choice];
+                if (remaining[localSku] > 0) {
+                    remaining[localSku]--;
+                    cheapest = cheapestFilling(bundle, component + 1, remaining, choice, cheapest, solutions, searchBudget);
+                    remaining[localSku]++;
+                }
+            }
+
+            return cheapest;
+        }
+
+        // a bundle with a component none of whose SKUs are left can not be filled, however its other components are
+        private boolean everyComponentHasUnitsIn(int bundle, int[] quantities) {
+            for (int[] accepted : acceptedSkus[bundle]) {
+                boolean hasUnits = false;
+                for (int localSku : accepted) {
+                    if (quantities[localSku] > 0) {
+                        hasUnits = true;
+                        break;
+                    }
+                }
+                if (!hasUnits) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private BundleAllocation greedyAllocationOf(int[] quantities) {
+            int[] remaining = quantities.clone();
+            List<Bundle> appliedBundles = new ArrayList<>();
+            long total = 0;
+
+            while (true) {
+                long unbundledPrice = unbundledPriceOf(remaining);
+                long biggestSaving = 0;
+                int[] afterBiggestSaving = null;
+                int bundleWithBiggestSaving = NO_BUNDLE;
+
+                for (int bundle = 0; bundle < bundles.size(); bundle++) {
+                    int[] after = greedyFillingOf(bundle, remaining);
+                    if (after == null) {
+                        continue;
+                    }
+
+                    long saving = unbundledPrice - bundles.get(bundle).getPriceInMinorUnits() - unbundledPriceOf(after);
+                    if (saving > biggestSaving) {
+                        biggestSaving = saving;
+                        afterBiggestSaving = after;
+                        bundleWithBiggestSaving = bundle;
+                    }
+                }
+
+                if (bundleWithBiggestSaving == NO_BUNDLE) {
+                    return new BundleAllocation(total + unbundledPrice, appliedBundles, false);
+                }
+
+                total += bundles.get(bundleWithBiggestSaving).getPriceInMinorUnits();
+                appliedBundles.add(bundles.get(bundleWithBiggestSaving));
+                remaining = afterBiggestSaving;
+            }
+        }
+
+        // fills every component with the dearest unit it accepts, or returns null if the bundle can not be filled
+        private int[] greedyFillingOf(int bundle, int[] remaining) {
+            int[] after = remaining.clone();
+
+            for (int[] accepted : acceptedSkus[bundle]) {
+                int dearestSku = -1;
+                for (int localSku : accepted) {
+                    if (after[localSku] > 0 && (dearestSku < 0 || unitPriceOf(localSku) > unitPriceOf(dearestSku))) {
+                        dearestSku = localSku;
+                    }
+                }
+
+                if (dearestSku < 0) {
+                    return null;
+                }
+                after[dearestSku]--;
+            }
+
+            return after;
+        }
+
+        private long unbundledPriceOf(int[] quantities) {
+            long price = 0;
+            for (int localSku = 0; localSku < quantities.length; localSku++) {
+                if (quantities[localSku] > 0) {
+                    price += pricingCatalog.priceInMinorUnits(skuIds[localSku], quantities[localSku]);
+                }
+            }
+            return price;
+        }
+
+        private long unitPriceOf(int localSku) {
+            return pricingCatalog.ruleFor(skuIds[localSku]).getUnitPriceInMinorUnits();
+        }
+    }
+
+    private final class SearchBudget {
+
+        private int steps;
+
+        private void step() {
+            if (++steps > maximumSearchSteps) {
+                throw SearchBudgetExhausted.INSTANCE;
+            }
+        }
+    }
+
+    private static final class State {
+
+        private final int[] quantities;
+        private final int hashCode;
+
+        private State(int[] quantities) {
+            this.quantities = quantities;
+            this.hashCode = Arrays.hashCode(quantities);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof State && Arrays.equals(quantities, ((State) other).quantities);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Solution {
+
+        private final long totalInMinorUnits;
+        private final int bundle;
+        private final State next;
+
+        private Solution(long totalInMinorUnits, int bundle, State next) {
+            this.totalInMinorUnits = totalInMinorUnits;
+            this.bundle = bundle;
+            this.next = next;
+        }
+    }
+
+    private static final class SearchBudgetExhausted extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final SearchBudgetExhausted INSTANCE = new SearchBudgetExhausted();
+
+        private SearchBudgetExhausted() {
+            super(null, null, false, false);
+        }
+    }
+}
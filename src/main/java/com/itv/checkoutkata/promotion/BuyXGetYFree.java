@@ -0,0 +1,35 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableSet;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.Set;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PROMOTION;
+
+// For every buy units paid at the unit price, the next free units cost nothing, e.g. buy 2 get 1 free.
+@Data
+public class BuyXGetYFree implements Promotion {
+
+    private final Set<Item> items;
+    private final int buy;
+    private final int free;
+
+    public BuyXGetYFree(Collection<Item> items, int buy, int free) {
+        if (items == null || items.isEmpty() || buy <= 0 || free <= 0) {
+            throw new IllegalArgumentException(INVALID_PROMOTION + items + " buy " + buy + " get " + free);
+        }
+        this.items = ImmutableSet.copyOf(items);
+        this.buy = buy;
+        this.free = free;
+    }
+
+    @Override
+    public long priceInMinorUnits(PricingRule pricingRule, int quantity) {
+        int freeUnits = quantity / (buy + free) * free;
+        return (quantity - freeUnits) * pricingRule.getUnitPriceInMinorUnits();
+    }
+}
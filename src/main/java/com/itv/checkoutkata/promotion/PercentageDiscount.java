@@ -0,0 +1,35 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableSet;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.Set;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PROMOTION;
+
+// A percentage off whatever the pricing rule charges for the quantity, rounded to the nearest minor unit.
+@Data
+public class PercentageDiscount implements Promotion {
+
+    private static final int HUNDRED_PERCENT = 100;
+
+    private final Set<Item> items;
+    private final int percentOff;
+
+    public PercentageDiscount(Collection<Item> items, int percentOff) {
+        if (items == null || items.isEmpty() || percentOff <= 0 || percentOff > HUNDRED_PERCENT) {
+            throw new IllegalArgumentException(INVALID_PROMOTION + items + " " + percentOff + "%");
+        }
+        this.items = ImmutableSet.copyOf(items);
+        this.percentOff = percentOff;
+    }
+
+    @Override
+    public long priceInMinorUnits(PricingRule pricingRule, int quantity) {
+        long price = pricingRule.priceInMinorUnitsFor(quantity);
+        return (price * (HUNDRED_PERCENT - percentOff) + HUNDRED_PERCENT / 2) / HUNDRED_PERCENT;
+    }
+}
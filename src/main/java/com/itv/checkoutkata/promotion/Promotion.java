@@ -0,0 +1,15 @@
+package com.itv.checkoutkata.promotion;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+
+import java.util.Set;
+
+// A promotion prices the quantity of each of its items on its own, starting from the item's pricing rule.
+// Where several promotions apply to an item, the customer pays the cheapest of them or of the pricing rule itself.
+public interface Promotion {
+
+    Set<Item> getItems();
+
+    long priceInMinorUnits(PricingRule pricingRule, int quantity);
+}
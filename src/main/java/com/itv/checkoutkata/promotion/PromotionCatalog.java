@@ -0,0 +1,89 @@
+package com.itv.checkoutkata.promotion;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.SkuQuantities;
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+// Promotions laid over a pricing catalog and indexed by the SKU ids of the items they apply to, so that a checkout
+// only ever looks at the promotions of the SKUs in the basket, however many promotions there are in total.
+public final class PromotionCatalog {
+
+    private static final Promotion[] NO_PROMOTIONS = new Promotion[0];
+
+    private final PricingCatalog pricingCatalog;
+    private final Promotion[][] promotionsBySkuId;
+    private final int size;
+
+    private PromotionCatalog(PricingCatalog pricingCatalog, Collection<Promotion> promotions) {
+        this.pricingCatalog = pricingCatalog;
+        this.size = promotions.size();
+
+        List<List<Promotion>> promotionsBySkuId = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            for (Item item : promotion.getItems()) {
+                int skuId = pricingCatalog.skuIdOf(item);
+                while (promotionsBySkuId.size() <= skuId) {
+                    promotionsBySkuId.add(new ArrayList<>());
+                }
+                promotionsBySkuId.get(skuId).add(promotion);
+            }
+        }
+
+        this.promotionsBySkuId = new Promotion[promotionsBySkuId.size()][];
+        for (int skuId = 0; skuId < promotionsBySkuId.size(); skuId++) {
+            this.promotionsBySkuId[skuId] = promotionsBySkuId.get(skuId).toArray(NO_PROMOTIONS);
+        }
+    }
+
+    public static PromotionCatalog of(PricingCatalog pricingCatalog, Collection<Promotion> promotions) {
+        new CheckoutValidator().validatePromotionCatalog(pricingCatalog, promotions);
+        return new PromotionCatalog(pricingCatalog, promotions);
+    }
+
+    public PricingCatalog getPricingCatalog() {
+        return pricingCatalog;
+    }
+
+    public List<Promotion> promotionsFor(Item item) {
+        return Collections.unmodifiableList(Arrays.asList(promotionsOf(pricingCatalog.skuIdOf(item))));
+    }
+
+    // the cheapest of the pricing rule and every promotion on the SKU
+    public long priceInMinorUnits(int skuId, int quantity) {
+        long cheapestPrice = pricingCatalog.priceInMinorUnits(skuId, quantity);
+
+        for (Promotion promotion : promotionsOf(skuId)) {
+            cheapestPrice = Math.min(cheapestPrice, promotion.priceInMinorUnits(pricingCatalog.ruleFor(skuId), quantity));
+        }
+
+        return cheapestPrice;
+    }
+
+    public long priceInMinorUnits(SkuQuantities skuQuantities) {
+        long totalPrice = 0;
+
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            int skuId = skuQuantities.skuIdAt(slot);
+            if (skuId != SkuQuantities.NO_SKU) {
+                totalPrice += priceInMinorUnits(skuId, skuQuantities.quantityAt(slot));
+            }
+        }
+
+        return totalPrice;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private Promotion[] promotionsOf(int skuId) {
+        return skuId >= 0 && skuId < promotionsBySkuId.length ? promotionsBySkuId[skuId] : NO_PROMOTIONS;
+    }
+}
@@ -0,0 +1,100 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.Money;
+import com.itv.checkoutkata.PricingRule;
+import lombok.Data;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PROMOTION;
+
+// Any number of multibuy tiers on top of the unit price, e.g. 3 for 1.00 and 10 for 3.00. Tiers can be combined
+// freely, so the quantity is split into whichever tiers and single units are cheapest overall.
+@Data
+public class TieredMultibuy implements Promotion {
+
+    private final Set<Item> items;
+    private final List<Tier> tiers;
+
+    public TieredMultibuy(Collection<Item> items, List<Tier> tiers) {
+        if (items == null || items.isEmpty() || tiers == null || tiers.isEmpty()) {
+            throw new IllegalArgumentException(INVALID_PROMOTION + items + " " + tiers);
+        }
+        this.items = ImmutableSet.copyOf(items);
+        this.tiers = ImmutableList.copyOf(tiers);
+    }
+
+    // Past a bound set by the tiers, every further lot of the cheapest-per-unit tier is just more of that tier, so
+    // only the quantity up to the bound is searched and the rest is priced arithmetically. Of the lots in a cheapest
+    // split, fewer than bestQuantity are anything but the best tier: among any bestQuantity lots, some of them add up
+    // to a multiple of bestQuantity units and could be swapped for best lots at no extra cost.
+    @Override
+    public long priceInMinorUnits(PricingRule pricingRule, int quantity) {
+        long unitPrice = pricingRule.getUnitPriceInMinorUnits();
+
+        int bestQuantity = 1;
+        long bestPrice = unitPrice;
+        int largestQuantity = 1;
+        for (Tier tier : tiers) {
+            if (tier.priceInMinorUnits * bestQuantity < bestPrice * tier.quantity) {
+                bestQuantity = tier.quantity;
+                bestPrice = tier.priceInMinorUnits;
+            }
+            largestQuantity = Math.max(largestQuantity, tier.quantity);
+        }
+
+        long searchedQuantity = (long) bestQuantity * largestQuantity;
+        long bestLots = 0;
+        if (quantity > searchedQuantity) {
+            bestLots = (quantity - searchedQuantity + bestQuantity - 1) / bestQuantity;
+        }
+
+        return cheapestPriceOf((int) (quantity - bestLots * bestQuantity), unitPrice) + bestLots * bestPrice;
+    }
+
+    private long cheapestPriceOf(int quantity, long unitPrice) {
+        long[] cheapestPrices = new long[quantity + 1];
+
+        for (int subQuantity = 1; subQuantity <= quantity; subQuantity++) {
+            long cheapestPrice = cheapestPrices[subQuantity - 1] + unitPrice;
+
+            for (Tier tier : tiers) {
+                if (tier.quantity <= subQuantity) {
+                    cheapestPrice = Math.min(cheapestPrice, cheapestPrices[subQuantity - tier.quantity] + tier.priceInMinorUnits);
+                }
+            }
+
+            cheapestPrices[subQuantity] = cheapestPrice;
+        }
+
+        return cheapestPrices[quantity];
+    }
+
+    @Data
+    public static class Tier {
+
+        private final int quantity;
+        private final long priceInMinorUnits;
+
+        public Tier(int quantity, double price) {
+            this(quantity, Money.toMinorUnits(price));
+        }
+
+        private Tier(int quantity, long priceInMinorUnits) {
+            if (quantity <= 0 || priceInMinorUnits < 0) {
+                throw new IllegalArgumentException(INVALID_PROMOTION + quantity + " for " + priceInMinorUnits);
+            }
+            this.quantity = quantity;
+            this.priceInMinorUnits = priceInMinorUnits;
+        }
+
+        public static Tier ofMinorUnits(int quantity, long priceInMinorUnits) {
+            return new Tier(quantity, priceInMinorUnits);
+        }
+    }
+}
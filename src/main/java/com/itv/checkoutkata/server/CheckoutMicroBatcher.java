@@ -0,0 +1,197 @@
+package com.itv.checkoutkata.server;
+
+import com.itv.checkoutkata.BatchCheckoutEngine;
+import com.itv.checkoutkata.BatchCheckoutResult;
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.CheckoutResult;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.PricingCatalogHolder;
+import com.itv.checkoutkata.validation.CheckoutValidator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_MICRO_BATCH_SETTINGS;
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+
+// Coalesces checkouts submitted from any number of threads into batches that one dispatcher thread collects and then
+// prices across the workers of a fork/join pool, against a single snapshot of the current catalog per batch. Callers
+// get a future per checkout. A full queue turns new checkouts away at once, so overload shows up as rejections rather
+// than as ever growing latency.
+public class CheckoutMicroBatcher implements AutoCloseable {
+
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    private final CheckoutValidator checkoutValidator = new CheckoutValidator();
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+    private final BatchCheckoutEngine batchCheckoutEngine;
+
+    private final PricingCatalogHolder pricingCatalogHolder;
+    private final MicroBatchSettings microBatchSettings;
+    private final BlockingQueue<PendingCheckout> pendingCheckouts;
+    private final Thread dispatcher;
+
+    private volatile boolean running = true;
+
+    public CheckoutMicroBatcher(PricingCatalogHolder pricingCatalogHolder, MicroBatchSettings microBatchSettings) {
+        this(pricingCatalogHolder, microBatchSettings, ForkJoinPool.commonPool());
+    }
+
+    public CheckoutMicroBatcher(PricingCatalogHolder pricingCatalogHolder, MicroBatchSettings microBatchSettings,
+                                ForkJoinPool pricingPool) {
+        if (pricingCatalogHolder == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+        if (microBatchSettings == null) {
+            throw new IllegalArgumentException(INVALID_MICRO_BATCH_SETTINGS + microBatchSettings);
+        }
+        this.batchCheckoutEngine = new BatchCheckoutEngine(pricingPool);
+        this.pricingCatalogHolder = pricingCatalogHolder;
+        this.microBatchSettings = microBatchSettings;
+        this.pendingCheckouts = new ArrayBlockingQueue<>(microBatchSettings.getMaximumQueuedCheckouts());
+        this.dispatcher = new Thread(this::dispatch, "checkout-micro-batcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    public void start() {
+        dispatcher.start();
+    }
+
+    public CompletableFuture<CheckoutResult> submit(List<Item> checkoutItems) {
+        checkoutValidator.validateForMissingCheckoutItems(checkoutItems);
+        if (!running) {
+            throw new PricingServiceStoppedException();
+        }
+
+        PendingCheckout pendingCheckout = new PendingCheckout(checkoutItems);
+        if (!pendingCheckouts.offer(pendingCheckout)) {
+            throw new PricingQueueFullException();
+        }
+        if (!running) {
+            // close may have drained the queue between the check above and the offer, leaving nobody to answer it;
+            // if the dispatcher prices it after all, whichever completes the future first wins
+            pendingCheckout.result.completeExceptionally(new PricingServiceStoppedException());
+        }
+        return pendingCheckout.result;
+    }
+
+    public int queuedCheckouts() {
+        return pendingCheckouts.size();
+    }
+
+    // stops taking checkouts, and prices the ones already queued before returning
+    @Override
+    public void close() {
+        running = false;
+        try {
+            if (dispatcher.isAlive()) {
+                dispatcher.join();
+            }
+        } catch (InterruptedException interrupted) {
+            // whatever the dispatcher has not priced yet fails below; the caller still sees it was interrupted
+            Thread.currentThread().interrupt();
+        }
+
+        // anything that slipped in as the dispatcher stopped, or that was queued without it ever starting
+        PendingCheckout leftOver;
+        while ((leftOver = pendingCheckouts.poll()) != null) {
+            leftOver.result.completeExceptionally(new PricingServiceStoppedException());
+        }
+    }
+
+    private void dispatch() {
+        List<PendingCheckout> batch = new ArrayList<>(microBatchSettings.getMaximumBatchSize());
+
+        try {
+            while (running || !pendingCheckouts.isEmpty()) {
+                PendingCheckout first = pendingCheckouts.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                fillBatch(batch, System.nanoTime() + microBatchSettings.getMaximumWait().toNanos());
+                try {
+                    price(batch);
+                } catch (Throwable failure) {
+                    // e.g. a pool that rejects the batch; the dispatcher has to live on or every later checkout waits
+                    failUnanswered(batch, failure);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fillBatch(List<PendingCheckout> batch, long deadline) throws InterruptedException {
+        int maximumBatchSize = microBatchSettings.getMaximumBatchSize();
+        pendingCheckouts.drainTo(batch, maximumBatchSize - batch.size());
+
+        while (batch.size() < maximumBatchSize) {
+            long remainingWait = deadline - System.nanoTime();
+            if (remainingWait <= 0) {
+                return;
+            }
+
+            PendingCheckout next = pendingCheckouts.poll(remainingWait, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            pendingCheckouts.drainTo(batch, maximumBatchSize - batch.size());
+        }
+    }
+
+    private void price(List<PendingCheckout> batch) {
+        PricingCatalog pricingCatalog = pricingCatalogHolder.current();
+
+        // handing a single checkout to the pool would only add the hand-off to its latency
+        if (batch.size() == 1) {
+            PendingCheckout pendingCheckout = batch.get(0);
+            try {
+                pendingCheckout.result.complete(checkoutEngine.checkoutAgainst(pendingCheckout.checkoutItems, pricingCatalog));
+            } catch (RuntimeException failure) {
+                pendingCheckout.result.completeExceptionally(failure);
+            }
+            return;
+        }
+
+        List<List<Item>> baskets = new ArrayList<>(batch.size());
+        for (PendingCheckout pendingCheckout : batch) {
+            baskets.add(pendingCheckout.checkoutItems);
+        }
+
+        List<BatchCheckoutResult> batchCheckoutResults = batchCheckoutEngine.checkout(baskets, pricingCatalog);
+        for (int checkout = 0; checkout < batch.size(); checkout++) {
+            BatchCheckoutResult batchCheckoutResult = batchCheckoutResults.get(checkout);
+            if (batchCheckoutResult.isPriced()) {
+                batch.get(checkout).result.complete(batchCheckoutResult.getCheckoutResult());
+            } else {
+                batch.get(checkout).result.completeExceptionally(batchCheckoutResult.getFailure());
+            }
+        }
+    }
+
+    private static void failUnanswered(List<PendingCheckout> batch, Throwable failure) {
+        for (PendingCheckout pendingCheckout : batch) {
+            pendingCheckout.result.completeExceptionally(failure);
+        }
+    }
+
+    private static final class PendingCheckout {
+
+        private final List<Item> checkoutItems;
+        private final CompletableFuture<CheckoutResult> result = new CompletableFuture<>();
+
+        private PendingCheckout(List<Item> checkoutItems) {
+            this.checkoutItems = checkoutItems;
+        }
+    }
+}
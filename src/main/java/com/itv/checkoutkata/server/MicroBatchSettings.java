@@ -0,0 +1,30 @@
+package com.itv.checkoutkata.server;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_MICRO_BATCH_SETTINGS;
+
+@Data
+public class MicroBatchSettings {
+
+    public static final MicroBatchSettings DEFAULTS = new MicroBatchSettings(64, Duration.ofMillis(2), 1024);
+
+    // a batch is priced once it has this many checkouts, or once its first checkout has waited maximumWait
+    private final int maximumBatchSize;
+    private final Duration maximumWait;
+
+    // checkouts beyond this many waiting are turned away rather than queued
+    private final int maximumQueuedCheckouts;
+
+    public MicroBatchSettings(int maximumBatchSize, Duration maximumWait, int maximumQueuedCheckouts) {
+        if (maximumBatchSize <= 0 || maximumWait == null || maximumWait.isNegative() || maximumWait.isZero()
+                || maximumQueuedCheckouts <= 0) {
+            throw new IllegalArgumentException(INVALID_MICRO_BATCH_SETTINGS + maximumBatchSize + ", " + maximumWait + ", " + maximumQueuedCheckouts);
+        }
+        this.maximumBatchSize = maximumBatchSize;
+        this.maximumWait = maximumWait;
+        this.maximumQueuedCheckouts = maximumQueuedCheckouts;
+    }
+}
@@ -0,0 +1,13 @@
+package com.itv.checkoutkata.server;
+
+import static com.itv.checkoutkata.ErrorMessages.PRICING_QUEUE_FULL;
+
+// Thrown by submit when the micro batcher's queue is full; the checkout may be retried later.
+public class PricingQueueFullException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PricingQueueFullException() {
+        super(PRICING_QUEUE_FULL);
+    }
+}
@@ -0,0 +1,157 @@
+package com.itv.checkoutkata.server;
+
+import com.itv.checkoutkata.CheckoutResult;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalogHolder;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.itv.checkoutkata.ErrorMessages.CHECKOUT_TIMED_OUT;
+import static com.itv.checkoutkata.ErrorMessages.INVALID_CHECKOUT_TIMEOUT;
+
+// A pricing endpoint on the JDK's built-in HTTP server, so front ends can share one engine and one set of rules.
+//
+// POST /checkout with one item name per line prices the basket against the current catalog and answers
+// {"totalInMinorUnits":130,"catalogVersion":7}. Baskets that can not be priced get a 400, a full micro batcher queue
+// or a checkout not priced within the checkout timeout a 503 with a Retry-After, a stopped service a 503 and any other
+// failure a 500.
+//
+// The JDK server leaves Nagle's algorithm on, which together with delayed acks holds small responses back by ~40ms.
+// It only reads its setting once, for the whole JVM, so start the JVM with -Dsun.net.httpserver.nodelay=true.
+public class PricingServer implements AutoCloseable {
+
+    public static final String CHECKOUT_PATH = "/checkout";
+    public static final Duration DEFAULT_CHECKOUT_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int INTERNAL_SERVER_ERROR = 500;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private final CheckoutMicroBatcher checkoutMicroBatcher;
+    private final long checkoutTimeoutNanos;
+    private final ExecutorService requestHandlers;
+    private final HttpServer httpServer;
+
+    public PricingServer(InetSocketAddress address, PricingCatalogHolder pricingCatalogHolder,
+                         MicroBatchSettings microBatchSettings, int handlerThreads) throws IOException {
+        this(address, pricingCatalogHolder, microBatchSettings, handlerThreads, DEFAULT_CHECKOUT_TIMEOUT);
+    }
+
+    // handlerThreads bounds how many requests wait on their batch at once, and checkoutTimeout how long each waits
+    public PricingServer(InetSocketAddress address, PricingCatalogHolder pricingCatalogHolder,
+                         MicroBatchSettings microBatchSettings, int handlerThreads, Duration checkoutTimeout) throws IOException {
+        if (checkoutTimeout == null || checkoutTimeout.isNegative() || checkoutTimeout.isZero()) {
+            throw new IllegalArgumentException(INVALID_CHECKOUT_TIMEOUT + checkoutTimeout);
+        }
+        this.checkoutMicroBatcher = new CheckoutMicroBatcher(pricingCatalogHolder, microBatchSettings);
+        this.checkoutTimeoutNanos = checkoutTimeout.toNanos();
+        this.requestHandlers = Executors.newFixedThreadPool(handlerThreads);
+        this.httpServer = HttpServer.create(address, 0);
+        this.httpServer.createContext(CHECKOUT_PATH, this::handleCheckout);
+        this.httpServer.setExecutor(requestHandlers);
+    }
+
+    public void start() {
+        checkoutMicroBatcher.start();
+        httpServer.start();
+    }
+
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        httpServer.stop(0);
+        checkoutMicroBatcher.close();
+        requestHandlers.shutdown();
+    }
+
+    private void handleCheckout(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, METHOD_NOT_ALLOWED, "POST a basket, one item per line");
+                return;
+            }
+
+            CheckoutResult checkoutResult = checkoutMicroBatcher.submit(checkoutItemsOf(exchange))
+                    .get(checkoutTimeoutNanos, TimeUnit.NANOSECONDS);
+            respond(exchange, OK, "{\"totalInMinorUnits\":" + checkoutResult.getTotalInMinorUnits()
+                    + ",\"catalogVersion\":" + checkoutResult.getCatalogVersion() + "}");
+        } catch (ExecutionException failure) {
+            respondToFailure(exchange, failure.getCause());
+        } catch (TimeoutException timedOut) {
+            // the batch is still priced, but nobody is left waiting for it
+            respondToFailure(exchange, new TimeoutException(CHECKOUT_TIMED_OUT));
+        } catch (RuntimeException failure) {
+            respondToFailure(exchange, failure);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            respond(exchange, INTERNAL_SERVER_ERROR, "Interrupted");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respondToFailure(HttpExchange exchange, Throwable failure) throws IOException {
+        int status = statusOf(failure);
+        if (failure instanceof PricingQueueFullException || failure instanceof TimeoutException) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+        respond(exchange, status, status == INTERNAL_SERVER_ERROR ? "Internal error pricing the checkout" : failure.getMessage());
+    }
+
+    // Baskets that fail validation are the client's fault, a stopped, overloaded or too slow service is temporary, and
+    // anything else is a fault of ours.
+    static int statusOf(Throwable failure) {
+        if (failure instanceof PricingQueueFullException || failure instanceof PricingServiceStoppedException
+                || failure instanceof TimeoutException) {
+            return SERVICE_UNAVAILABLE;
+        }
+        if (failure instanceof IllegalArgumentException || failure instanceof UnpricedItemsException) {
+            return BAD_REQUEST;
+        }
+        return INTERNAL_SERVER_ERROR;
+    }
+
+    private static List<Item> checkoutItemsOf(HttpExchange exchange) throws IOException {
+        List<Item> checkoutItems = new ArrayList<>();
+
+        BufferedReader body = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = body.readLine()) != null) {
+            if (!line.trim().isEmpty()) {
+                checkoutItems.add(new Item(line.trim()));
+            }
+        }
+
+        return checkoutItems;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", status == OK ? "application/json" : "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
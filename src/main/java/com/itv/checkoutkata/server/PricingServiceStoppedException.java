@@ -0,0 +1,13 @@
+package com.itv.checkoutkata.server;
+
+import static com.itv.checkoutkata.ErrorMessages.PRICING_SERVICE_STOPPED;
+
+// Thrown by submit, or completes a checkout's future, once the micro batcher has been closed.
+public class PricingServiceStoppedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PricingServiceStoppedException() {
+        super(PRICING_SERVICE_STOPPED);
+    }
+}
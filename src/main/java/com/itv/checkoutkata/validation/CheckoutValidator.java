@@ -1,12 +1,23 @@
 package com.itv.checkoutkata.validation;
 
 import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
 import com.itv.checkoutkata.PricingRule;
+import com.itv.checkoutkata.ScheduledPricingCatalog;
+import com.itv.checkoutkata.ScheduledPricingRule;
+import com.itv.checkoutkata.SkuQuantities;
+import com.itv.checkoutkata.io.MappedPricingCatalog;
+import com.itv.checkoutkata.promotion.Bundle;
+import com.itv.checkoutkata.promotion.Promotion;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.itv.checkoutkata.ErrorMessages.*;
 
@@ -18,22 +29,228 @@ public class CheckoutValidator {
         validateMatchingRulesForEveryItem(checkoutItems, pricingRules);
     }
 
+    // Leaves checking every item has a rule to the counting pass, see collectUnpricedItem.
+    public void validateBeforeCounting(List<Item> checkoutItems, Map<Item, PricingRule> pricingRules) {
+        validateForMissingCheckoutItems(checkoutItems);
+        validateForMissingPricingRules(pricingRules);
+    }
+
+    // Like validateBeforeCounting, leaves checking every item has a rule to the pricing pass.
+    public void validateQuantities(Map<Item, Integer> checkoutItemQuantities, Map<Item, PricingRule> pricingRules) {
+        validateForMissingCheckoutItemQuantities(checkoutItemQuantities);
+        validateForMissingPricingRules(pricingRules);
+        validateQuantitiesArePositive(checkoutItemQuantities);
+    }
+
+    public void validatePricingCatalog(Map<Item, PricingRule> pricingRules) {
+        validateForMissingPricingRules(pricingRules);
+        pricingRules.forEach(this::validatePricingRule);
+    }
+
+    // Catalog level checks already happened when the catalog was built, only the checkout itself is left to check.
+    public void validateAgainstCatalog(List<Item> checkoutItems, PricingCatalog pricingCatalog) {
+        validateForMissingCheckoutItems(checkoutItems);
+        validateForMissingPricingCatalog(pricingCatalog);
+    }
+
+    public void validateAgainstMappedCatalog(List<Item> checkoutItems, MappedPricingCatalog mappedPricingCatalog) {
+        validateForMissingCheckoutItems(checkoutItems);
+        if (mappedPricingCatalog == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+    }
+
+    public void validateQuantitiesAgainstCatalog(Map<Item, Integer> checkoutItemQuantities, PricingCatalog pricingCatalog) {
+        validateForMissingCheckoutItemQuantities(checkoutItemQuantities);
+        validateForMissingPricingCatalog(pricingCatalog);
+        validateQuantitiesArePositive(checkoutItemQuantities);
+    }
+
+    public void validateSkuIdsAgainstCatalog(int[] scannedSkuIds, PricingCatalog pricingCatalog) {
+        validateForMissingSkuIds(scannedSkuIds);
+        validateForMissingPricingCatalog(pricingCatalog);
+    }
+
+    public void validateSkuQuantitiesAgainstCatalog(int[] skuIds, int[] quantities, PricingCatalog pricingCatalog) {
+        validateForMissingSkuIds(skuIds);
+        validateForMissingPricingCatalog(pricingCatalog);
+
+        if (quantities == null || quantities.length != skuIds.length) {
+            throw new IllegalArgumentException(MISMATCHED_CHECKOUT_QUANTITIES);
+        }
+
+        for (int quantity : quantities) {
+            if (quantity <= 0) {
+                throw new IllegalArgumentException(NON_POSITIVE_CHECKOUT_QUANTITIES);
+            }
+        }
+    }
+
+    public void validatePromotionCatalog(PricingCatalog pricingCatalog, Collection<Promotion> promotions) {
+        validateForMissingPricingCatalog(pricingCatalog);
+        if (promotions == null) {
+            throw new IllegalArgumentException(INVALID_PROMOTION + promotions);
+        }
+
+        for (Promotion promotion : promotions) {
+            if (promotion == null) {
+                throw new IllegalArgumentException(INVALID_PROMOTION + promotion);
+            }
+            for (Item item : promotion.getItems()) {
+                if (!pricingCatalog.hasRuleFor(item)) {
+                    throw new IllegalArgumentException(UNPRICED_PROMOTION_ITEM + item);
+                }
+            }
+        }
+    }
+
+    public void validateBundles(PricingCatalog pricingCatalog, List<Bundle> bundles, int maximumSearchSteps) {
+        validateForMissingPricingCatalog(pricingCatalog);
+        if (bundles == null || bundles.contains(null) || maximumSearchSteps <= 0) {
+            throw new IllegalArgumentException(INVALID_PROMOTION + bundles);
+        }
+
+        for (Bundle bundle : bundles) {
+            for (Set<Item> component : bundle.getComponents()) {
+                for (Item item : component) {
+                    if (!pricingCatalog.hasRuleFor(item)) {
+                        throw new IllegalArgumentException(UNPRICED_PROMOTION_ITEM + item);
+                    }
+                }
+            }
+        }
+    }
+
+    public void validateScheduledPricingRules(Collection<ScheduledPricingRule> scheduledPricingRules) {
+        if (CollectionUtils.isEmpty(scheduledPricingRules)) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+
+        for (ScheduledPricingRule scheduledPricingRule : scheduledPricingRules) {
+            if (scheduledPricingRule == null || scheduledPricingRule.getPricingRule() == null) {
+                throw new IllegalArgumentException(MISMATCHED_PRICING_RULE + scheduledPricingRule);
+            }
+            validatePricingRule(scheduledPricingRule.getItem(), scheduledPricingRule.getPricingRule());
+
+            Instant validFrom = scheduledPricingRule.getValidFrom();
+            Instant validUntil = scheduledPricingRule.getValidUntil();
+            if (validFrom != null && validUntil != null && !validFrom.isBefore(validUntil)) {
+                throw new IllegalArgumentException(INVALID_PRICING_RULE_WINDOW + scheduledPricingRule);
+            }
+        }
+    }
+
+    public void validateAgainstScheduledCatalog(List<Item> checkoutItems, ScheduledPricingCatalog scheduledPricingCatalog, Instant pricedAt) {
+        validateForMissingCheckoutItems(checkoutItems);
+        if (scheduledPricingCatalog == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+        if (pricedAt == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_INSTANT);
+        }
+    }
+
+    private void validatePricingRule(Item item, PricingRule pricingRule) {
+        if (pricingRule == null || !item.equals(pricingRule.getItem())) {
+            throw new IllegalArgumentException(MISMATCHED_PRICING_RULE + item);
+        }
+
+        long unitPrice = pricingRule.getUnitPriceInMinorUnits();
+        long multiPrice = pricingRule.getMultiPriceInMinorUnits();
+        int multiPricedQuantity = pricingRule.getMultiPricedQuantity();
+
+        boolean hasNoMultiPrice = multiPrice == 0 && multiPricedQuantity == 0;
+        boolean hasUsableMultiPrice = multiPrice > 0 && multiPricedQuantity > 1;
+
+        if (unitPrice < 0 || !(hasNoMultiPrice || hasUsableMultiPrice)) {
+            throw new IllegalArgumentException(INCONSISTENT_PRICING_RULE + pricingRule);
+        }
+    }
+
+    // Scan logs are split on single bytes, so the delimiter has to be one byte in UTF-8 as well as not a line break.
+    public void validateScanLogDelimiter(char delimiter) {
+        if (delimiter > 0x7F || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException(INVALID_SCAN_LOG_DELIMITER + (int) delimiter);
+        }
+    }
+
+    public void validateForMissingBaskets(List<List<Item>> baskets) {
+        if (CollectionUtils.isEmpty(baskets)) {
+            throw new IllegalArgumentException(MISSING_BASKETS);
+        }
+    }
+
+    public void validateForMissingPricingCatalog(PricingCatalog pricingCatalog) {
+        if (pricingCatalog == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+    }
+
     private void validateForMissingPricingRules(Map<Item, PricingRule> pricingRules) {
         if (MapUtils.isEmpty(pricingRules)) {
             throw new IllegalArgumentException(MISSING_PRICING_RULES);
         }
     }
 
-    private void validateForMissingCheckoutItems(List<Item> checkoutItems) {
+    public void validateForMissingCheckoutItems(List<Item> checkoutItems) {
         if (CollectionUtils.isEmpty(checkoutItems)) {
             throw new IllegalArgumentException(MISSING_CHECKOUT_ITEMS);
         }
     }
 
-    public void validateMatchingRulesForEveryItem(List<Item> checkoutItems, Map<Item, PricingRule> pricingRules) {
-        boolean weHaveRulesForAllCheckoutItems = checkoutItems.stream().allMatch(item -> pricingRules.containsKey(item));
-        if (!weHaveRulesForAllCheckoutItems) {
-            throw new IllegalStateException(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+    private void validateForMissingSkuIds(int[] skuIds) {
+        if (skuIds == null || skuIds.length == 0) {
+            throw new IllegalArgumentException(MISSING_CHECKOUT_ITEMS);
+        }
+    }
+
+    private void validateForMissingCheckoutItemQuantities(Map<Item, Integer> checkoutItemQuantities) {
+        if (MapUtils.isEmpty(checkoutItemQuantities)) {
+            throw new IllegalArgumentException(MISSING_CHECKOUT_ITEMS);
+        }
+    }
+
+    private void validateQuantitiesArePositive(Map<Item, Integer> checkoutItemQuantities) {
+        boolean everyQuantityIsPositive = checkoutItemQuantities.values().stream().allMatch(quantity -> quantity != null && quantity > 0);
+        if (!everyQuantityIsPositive) {
+            throw new IllegalArgumentException(NON_POSITIVE_CHECKOUT_QUANTITIES);
+        }
+    }
+
+    public void validateMatchingRulesForEveryItem(Collection<Item> checkoutItems, Map<Item, PricingRule> pricingRules) {
+        Set<Item> unpricedItems = null;
+        for (Item checkoutItem : checkoutItems) {
+            if (!pricingRules.containsKey(checkoutItem)) {
+                unpricedItems = collectUnpricedItem(unpricedItems, checkoutItem);
+            }
+        }
+        validateNoUnpricedItems(unpricedItems);
+    }
+
+    // For counting passes that check each item's rule as they go. The set is only allocated once an item turns out
+    // to have no rule, so a basket that is fully priced costs nothing beyond the null checks.
+    public Set<Item> collectUnpricedItem(Set<Item> unpricedItems, Item checkoutItem) {
+        Set<Item> collected = unpricedItems != null ? unpricedItems : new LinkedHashSet<>();
+        collected.add(checkoutItem);
+        return collected;
+    }
+
+    public void validateNoUnpricedItems(Set<Item> unpricedItems) {
+        if (unpricedItems != null) {
+            throw new UnpricedItemsException(unpricedItems);
+        }
+    }
+
+    // For interned ids, checked as they are counted; catches ids no catalog ever handed out, UNKNOWN_SKU included.
+    public void validateSkuIdIsPriced(int skuId, PricingCatalog pricingCatalog) {
+        if (!pricingCatalog.hasRuleFor(skuId)) {
+            throw new IllegalStateException(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS + " SKU id " + skuId);
+        }
+    }
+
+    public void validateSkuIsInBasket(int skuId, SkuQuantities basketQuantities) {
+        if (basketQuantities.quantityOf(skuId) <= 0) {
+            throw new IllegalArgumentException(ITEM_NOT_IN_BASKET);
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.itv.checkoutkata.validation;
+
+import com.itv.checkoutkata.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+
+// Names every distinct item of a checkout that has no pricing rule, in the order they were first scanned, so nobody
+// has to go through the basket again to find out what to fix.
+public class UnpricedItemsException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Item> unpricedItems;
+
+    public UnpricedItemsException(Collection<Item> unpricedItems) {
+        super(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS + " " + unpricedItems);
+        this.unpricedItems = Collections.unmodifiableList(new ArrayList<>(unpricedItems));
+    }
+
+    public List<Item> getUnpricedItems() {
+        return unpricedItems;
+    }
+}
@@ -0,0 +1,124 @@
+package com.itv.checkoutkata.whatif;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.SkuQuantities;
+import com.itv.checkoutkata.SkuRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.itv.checkoutkata.ErrorMessages.NON_POSITIVE_CHECKOUT_QUANTITIES;
+
+// Historical baskets stored once, column by column: for every SKU that was ever sold, the quantities it was bought in
+// across all baskets. As only the quantity of a SKU within a basket matters to its price, each column is kept as the
+// distinct quantities with how many baskets bought each, which is usually a handful of entries per SKU.
+public final class HistoricalBaskets {
+
+    private final Item[] items;
+    private final int[][] quantities;
+    private final long[][] basketCounts;
+    private final long baskets;
+
+    private HistoricalBaskets(Item[] items, int[][] quantities, long[][] basketCounts, long baskets) {
+        this.items = items;
+        this.quantities = quantities;
+        this.basketCounts = basketCounts;
+        this.baskets = baskets;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int skus() {
+        return items.length;
+    }
+
+    public long baskets() {
+        return baskets;
+    }
+
+    Item itemAt(int sku) {
+        return items[sku];
+    }
+
+    int[] quantitiesAt(int sku) {
+        return quantities[sku];
+    }
+
+    long[] basketCountsAt(int sku) {
+        return basketCounts[sku];
+    }
+
+    public static final class Builder {
+
+        private final SkuRegistry skuRegistry = new SkuRegistry();
+        private final List<QuantityCounts> quantityCountsBySkuId = new ArrayList<>();
+        private final SkuQuantities basket = new SkuQuantities();
+        private long baskets;
+
+        private Builder() {
+        }
+
+        public Builder basket(List<Item> checkoutItems) {
+            basket.clear();
+            for (Item checkoutItem : checkoutItems) {
+                basket.add(skuRegistry.intern(checkoutItem), 1);
+            }
+
+            for (int slot = 0; slot < basket.slots(); slot++) {
+                int skuId = basket.skuIdAt(slot);
+                if (skuId != SkuQuantities.NO_SKU) {
+                    countQuantity(skuId, basket.quantityAt(slot));
+                }
+            }
+
+            baskets++;
+            return this;
+        }
+
+        public Builder basket(Map<Item, Integer> checkoutItemQuantities) {
+            // a rejected basket must leave nothing behind, so every quantity is checked before any is counted
+            for (Integer quantity : checkoutItemQuantities.values()) {
+                if (quantity == null || quantity <= 0) {
+                    throw new IllegalArgumentException(NON_POSITIVE_CHECKOUT_QUANTITIES);
+                }
+            }
+
+            checkoutItemQuantities.forEach((item, quantity) -> countQuantity(skuRegistry.intern(item), quantity));
+            baskets++;
+            return this;
+        }
+
+        public HistoricalBaskets build() {
+            int skus = quantityCountsBySkuId.size();
+            Item[] items = new Item[skus];
+            int[][] quantities = new int[skus][];
+            long[][] basketCounts = new long[skus][];
+
+            for (int skuId = 0; skuId < skus; skuId++) {
+                QuantityCounts quantityCounts = quantityCountsBySkuId.get(skuId);
+                int[] skuQuantities = quantityCounts.sortedQuantities();
+
+                long[] skuBasketCounts = new long[skuQuantities.length];
+                for (int index = 0; index < skuQuantities.length; index++) {
+                    skuBasketCounts[index] = quantityCounts.basketsBuying(skuQuantities[index]);
+                }
+
+                items[skuId] = skuRegistry.itemOf(skuId);
+                quantities[skuId] = skuQuantities;
+                basketCounts[skuId] = skuBasketCounts;
+            }
+
+            return new HistoricalBaskets(items, quantities, basketCounts, baskets);
+        }
+
+        private void countQuantity(int skuId, int quantity) {
+            while (quantityCountsBySkuId.size() <= skuId) {
+                quantityCountsBySkuId.add(new QuantityCounts());
+            }
+            quantityCountsBySkuId.get(skuId).countBasket(quantity);
+        }
+    }
+}
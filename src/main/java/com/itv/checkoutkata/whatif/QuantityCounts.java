@@ -0,0 +1,72 @@
+package com.itv.checkoutkata.whatif;
+
+import java.util.Arrays;
+
+// How many baskets bought a SKU in each quantity: a primitive open-addressing map from quantity to basket count. As
+// quantities are always positive, 0 marks an empty slot.
+final class QuantityCounts {
+
+    private static final int EMPTY = 0;
+
+    private int[] quantities = new int[8];
+    private long[] basketCounts = new long[8];
+    private int size;
+
+    void countBasket(int quantity) {
+        int slot = slotOf(quantity);
+
+        if (quantities[slot] == EMPTY) {
+            if ((size + 1) * 2 > quantities.length) {
+                resize();
+                slot = slotOf(quantity);
+            }
+            quantities[slot] = quantity;
+            size++;
+        }
+
+        basketCounts[slot]++;
+    }
+
+    int[] sortedQuantities() {
+        int[] sorted = new int[size];
+        int next = 0;
+        for (int quantity : quantities) {
+            if (quantity != EMPTY) {
+                sorted[next++] = quantity;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    long basketsBuying(int quantity) {
+        int slot = slotOf(quantity);
+        return quantities[slot] == EMPTY ? 0 : basketCounts[slot];
+    }
+
+    private int slotOf(int quantity) {
+        int mask = quantities.length - 1;
+        int hash = quantity * 0x9E3779B9;
+        int slot = (hash ^ hash >>> 16) & mask;
+        while (quantities[slot] != EMPTY && quantities[slot] != quantity) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize() {
+        int[] oldQuantities = quantities;
+        long[] oldBasketCounts = basketCounts;
+
+        quantities = new int[oldQuantities.length * 2];
+        basketCounts = new long[oldQuantities.length * 2];
+
+        for (int slot = 0; slot < oldQuantities.length; slot++) {
+            if (oldQuantities[slot] != EMPTY) {
+                int newSlot = slotOf(oldQuantities[slot]);
+                quantities[newSlot] = oldQuantities[slot];
+                basketCounts[newSlot] = oldBasketCounts[slot];
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.itv.checkoutkata.whatif;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.Money;
+import lombok.Data;
+
+import java.util.Map;
+import java.util.Set;
+
+@Data
+public class WhatIfReport {
+
+    // the version of the candidate pricing catalog the history was repriced against
+    private final long catalogVersion;
+
+    private final long totalInMinorUnits;
+
+    private final Map<Item, Long> revenueInMinorUnitsByItem;
+
+    // items sold in the history that the candidate catalog has no rule for, left out of the totals
+    private final Set<Item> unpricedItems;
+
+    public double getTotal() {
+        return Money.toMajorUnits(totalInMinorUnits);
+    }
+
+    public long revenueInMinorUnitsOf(Item item) {
+        return revenueInMinorUnitsByItem.getOrDefault(item, 0L);
+    }
+}
@@ -0,0 +1,62 @@
+package com.itv.checkoutkata.whatif;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static java.util.stream.Collectors.toList;
+
+// Answers "what would these baskets have cost under these rules?" for many candidate catalogs at once. The history is
+// read column by column, so each candidate only costs one price calculation per distinct quantity of each SKU.
+public class WhatIfRepricer {
+
+    public WhatIfReport reprice(HistoricalBaskets historicalBaskets, PricingCatalog candidateCatalog) {
+        if (candidateCatalog == null) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+
+        long totalInMinorUnits = 0;
+        Map<Item, Long> revenueInMinorUnitsByItem = new HashMap<>();
+        Set<Item> unpricedItems = new HashSet<>();
+
+        for (int sku = 0; sku < historicalBaskets.skus(); sku++) {
+            Item item = historicalBaskets.itemAt(sku);
+            int skuId = candidateCatalog.skuIdOf(item);
+
+            if (!candidateCatalog.hasRuleFor(skuId)) {
+                unpricedItems.add(item);
+                continue;
+            }
+
+            int[] quantities = historicalBaskets.quantitiesAt(sku);
+            long[] basketCounts = historicalBaskets.basketCountsAt(sku);
+            long revenueInMinorUnits = 0;
+
+            for (int index = 0; index < quantities.length; index++) {
+                revenueInMinorUnits += basketCounts[index] * candidateCatalog.priceInMinorUnits(skuId, quantities[index]);
+            }
+
+            revenueInMinorUnitsByItem.put(item, revenueInMinorUnits);
+            totalInMinorUnits += revenueInMinorUnits;
+        }
+
+        return new WhatIfReport(candidateCatalog.getVersion(), totalInMinorUnits, revenueInMinorUnitsByItem, unpricedItems);
+    }
+
+    // candidates are independent of each other, so they are repriced in parallel; reports keep the candidates' order
+    public List<WhatIfReport> reprice(HistoricalBaskets historicalBaskets, List<PricingCatalog> candidateCatalogs) {
+        if (candidateCatalogs == null || candidateCatalogs.isEmpty()) {
+            throw new IllegalArgumentException(MISSING_PRICING_RULES);
+        }
+
+        return candidateCatalogs.parallelStream()
+                .map(candidateCatalog -> reprice(historicalBaskets, candidateCatalog))
+                .collect(toList());
+    }
+}
@@ -0,0 +1,156 @@
+package com.itv.checkoutkata;
+
+import com.google.common.collect.Maps;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static com.itv.checkoutkata.ErrorMessages.ITEM_NOT_IN_BASKET;
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BasketTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private CheckoutTestData checkoutTestData;
+
+    @Test
+    public void given_emptyPricingRules_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_PRICING_RULES);
+
+        // When
+        new Basket(Maps.newHashMap());
+    }
+
+    @Test
+    public void given_newBasket_then_totalIsZero(){
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+
+        // When
+        Basket basket = new Basket(checkoutTestData.getPricingRules());
+
+        // Then
+        assertThat(basket.total(), is(0.0));
+        assertThat(basket.isEmpty(), is(true));
+    }
+
+    @Test
+    public void given_itemWithoutPricingRule_when_scanned_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+        Basket basket = new Basket(checkoutTestData.getPricingRules());
+
+        // When
+        basket.scan(new Item("Whatever"));
+    }
+
+    @Test
+    public void given_itemNotInBasket_when_removed_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(ITEM_NOT_IN_BASKET);
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+        Basket basket = new Basket(checkoutTestData.getPricingRules());
+
+        // When
+        basket.remove(new Item("Apple"));
+    }
+
+    @Test
+    public void given_multiPricedItem_when_scannedOneByOne_then_runningTotalFollowsTheRule(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2));
+        Basket basket = new Basket(checkoutTestData.getPricingRules());
+        Item apple = new Item("Apple");
+
+        // Then
+        assertThat(basket.scan(apple), is(2.0));
+        assertThat(basket.scan(apple), is(3.0));
+        assertThat(basket.scan(apple), is(5.0));
+        assertThat(basket.quantityOf(apple), is(3));
+    }
+
+    @Test
+    public void given_scannedItem_when_removed_then_totalIsRepriced(){
+        // Given
+        checkoutData()
+                .apple(quantity(2), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2));
+        Basket basket = new Basket(checkoutTestData.getPricingRules());
+        Item apple = new Item("Apple");
+        basket.scan(apple);
+        basket.scan(apple);
+
+        // When
+        basket.remove(apple);
+
+        // Then
+        assertThat(basket.total(), is(2.0));
+
+        // When
+        basket.remove(apple);
+
+        // Then
+        assertThat(basket.total(), is(0.0));
+        assertThat(basket.isEmpty(), is(true));
+    }
+
+    @Test
+    public void given_multipleCheckoutItems_when_scanned_then_totalAgreesWithCheckoutEngine(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+        Basket basket = new Basket(checkoutTestData.getPricingRules());
+
+        // When
+        checkoutTestData.getCheckoutItems().forEach(basket::scan);
+
+        // Then
+        long expectedTotal = new CheckoutEngine().checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), checkoutTestData.getPricingRules());
+        assertThat(basket.totalInMinorUnits(), is(expectedTotal));
+    }
+
+    @Test
+    public void given_skuIds_when_scanned_then_totalMatchesScanningItems(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        Basket basket = new Basket(pricingCatalog);
+        int apple = pricingCatalog.skuIdOf(new Item("Apple"));
+
+        // When
+        basket.scan(apple);
+        basket.scan(apple);
+        basket.scan(apple);
+        basket.remove(apple);
+
+        // Then
+        assertThat(basket.totalInMinorUnits(), is(300L));
+        assertThat(basket.quantityOf(apple), is(2));
+    }
+
+    private CheckoutTestData checkoutData(){
+        checkoutTestData = new CheckoutTestData();
+        return checkoutTestData;
+    }
+}
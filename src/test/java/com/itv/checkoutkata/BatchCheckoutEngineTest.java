@@ -0,0 +1,99 @@
+package com.itv.checkoutkata;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static com.itv.checkoutkata.ErrorMessages.MISSING_BASKETS;
+import static com.itv.checkoutkata.ErrorMessages.MISSING_CHECKOUT_ITEMS;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BatchCheckoutEngineTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private ForkJoinPool forkJoinPool;
+
+    private BatchCheckoutEngine batchCheckoutEngine;
+
+    private CheckoutTestData checkoutTestData;
+
+    @Before
+    public void setup() {
+        forkJoinPool = new ForkJoinPool(4);
+        batchCheckoutEngine = new BatchCheckoutEngine(forkJoinPool);
+        checkoutTestData = new CheckoutTestData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+    }
+
+    @After
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    @Test
+    public void given_noBaskets_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_BASKETS);
+
+        // When
+        batchCheckoutEngine.checkout(Collections.emptyList(), checkoutTestData.getPricingRules());
+    }
+
+    @Test
+    public void given_manyBaskets_then_totalsComeBackInBasketOrderAndMatchSequentialCheckouts(){
+        // Given
+        CheckoutEngine checkoutEngine = new CheckoutEngine();
+        List<Item> allItems = checkoutTestData.getCheckoutItems();
+        List<List<Item>> baskets = new ArrayList<>();
+        for (int basket = 0; basket < 10_000; basket++) {
+            baskets.add(allItems.subList(0, 1 + basket % allItems.size()));
+        }
+
+        // When
+        List<BatchCheckoutResult> batchCheckoutResults = batchCheckoutEngine.checkout(baskets, checkoutTestData.getPricingRules());
+
+        // Then
+        assertThat(batchCheckoutResults.size(), is(baskets.size()));
+        for (int basket = 0; basket < baskets.size(); basket++) {
+            long expectedTotal = checkoutEngine.checkoutInMinorUnits(baskets.get(basket), checkoutTestData.getPricingRules());
+            assertThat(batchCheckoutResults.get(basket).getCheckoutResult().getTotalInMinorUnits(), is(expectedTotal));
+        }
+    }
+
+    @Test
+    public void given_badBaskets_then_onlyTheyFailAndTheRestArePriced(){
+        // Given
+        List<List<Item>> baskets = asList(
+                asList(new Item("Apple")),
+                asList(new Item("Whatever")),
+                Collections.emptyList(),
+                asList(new Item("Banana")));
+
+        // When
+        List<BatchCheckoutResult> batchCheckoutResults = batchCheckoutEngine.checkout(baskets, checkoutTestData.getPricingRules());
+
+        // Then
+        assertThat(batchCheckoutResults.get(0).getCheckoutResult().getTotalInMinorUnits(), is(200L));
+        assertThat(batchCheckoutResults.get(1).isPriced(), is(false));
+        assertThat(batchCheckoutResults.get(1).getFailure().getMessage(), containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+        assertThat(batchCheckoutResults.get(2).getFailure().getMessage(), is(MISSING_CHECKOUT_ITEMS));
+        assertThat(batchCheckoutResults.get(3).getCheckoutResult().getTotalInMinorUnits(), is(100L));
+    }
+}
@@ -0,0 +1,102 @@
+package com.itv.checkoutkata;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Map;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CachingCheckoutEngineTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private CheckoutTestData checkoutTestData;
+
+    private CachingCheckoutEngine cachingCheckoutEngine;
+
+    @Before
+    public void setup() {
+        cachingCheckoutEngine = new CachingCheckoutEngine(2);
+        checkoutTestData = new CheckoutTestData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0));
+    }
+
+    @Test
+    public void given_sameItemsInAnotherOrder_then_resultIsServedFromTheCache(){
+        // Given
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        CheckoutResult first = cachingCheckoutEngine.checkoutAgainst(asList(APPLE, BANANA, APPLE), pricingCatalog);
+
+        // When
+        CheckoutResult second = cachingCheckoutEngine.checkoutAgainst(asList(BANANA, APPLE, APPLE), pricingCatalog);
+
+        // Then
+        assertThat(second, is(first));
+        assertThat(second.getTotalInMinorUnits(), is(400L));
+        assertThat(cachingCheckoutEngine.stats().hitCount(), is(1L));
+        assertThat(cachingCheckoutEngine.stats().missCount(), is(1L));
+    }
+
+    @Test
+    public void given_rulesChanged_then_cachedResultIsNotServed(){
+        // Given
+        PricingCatalogHolder pricingCatalogHolder = new PricingCatalogHolder(checkoutTestData.getPricingRules());
+        cachingCheckoutEngine.checkoutAgainst(asList(APPLE), pricingCatalogHolder);
+
+        Map<Item, PricingRule> newPricingRules = new CheckoutTestData()
+                .apple(quantity(1), unitPrice(5.0))
+                .getPricingRules();
+        pricingCatalogHolder.publish(newPricingRules);
+
+        // When
+        CheckoutResult checkoutResult = cachingCheckoutEngine.checkoutAgainst(asList(APPLE), pricingCatalogHolder);
+
+        // Then
+        assertThat(checkoutResult.getTotalInMinorUnits(), is(500L));
+        assertThat(cachingCheckoutEngine.stats().hitCount(), is(0L));
+    }
+
+    @Test
+    public void given_moreBasketsThanTheCacheHolds_then_leastRecentlyUsedAreEvicted(){
+        // Given
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+
+        // When
+        cachingCheckoutEngine.checkoutAgainst(asList(APPLE), pricingCatalog);
+        cachingCheckoutEngine.checkoutAgainst(asList(BANANA), pricingCatalog);
+        cachingCheckoutEngine.checkoutAgainst(asList(APPLE), pricingCatalog);
+        cachingCheckoutEngine.checkoutAgainst(asList(APPLE, BANANA), pricingCatalog);
+
+        // Then
+        assertThat(cachingCheckoutEngine.size(), is(2L));
+        assertThat(cachingCheckoutEngine.stats().evictionCount(), is(1L));
+
+        // When
+        cachingCheckoutEngine.checkoutAgainst(asList(APPLE), pricingCatalog);
+
+        // Then
+        assertThat(cachingCheckoutEngine.stats().hitCount(), is(2L));
+    }
+
+    @Test
+    public void given_itemWithoutRule_then_explodeWithoutCachingAnything(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // When
+        cachingCheckoutEngine.checkoutAgainst(asList(new Item("Whatever")), PricingCatalog.of(checkoutTestData.getPricingRules()));
+    }
+}
@@ -1,23 +1,30 @@
 package com.itv.checkoutkata;
 
 import com.google.common.collect.Maps;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static com.itv.checkoutkata.CheckoutTestData.*;
 import static com.itv.checkoutkata.CheckoutTestData.multiPricedQuantity;
+import static com.itv.checkoutkata.ErrorMessages.MISMATCHED_CHECKOUT_QUANTITIES;
 import static com.itv.checkoutkata.ErrorMessages.MISSING_CHECKOUT_ITEMS;
 import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static com.itv.checkoutkata.ErrorMessages.NON_POSITIVE_CHECKOUT_QUANTITIES;
 import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
 import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 
 public class CheckoutEngineTest {
 
@@ -180,6 +187,305 @@ public class CheckoutEngineTest {
     }
 
 
+    @Test
+    public void given_pricesThatAreInexactAsDoubles_then_totalPriceIsExact(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(0.1));
+
+        // When
+        long totalPrice = checkoutEngine
+                .checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), checkoutTestData.getPricingRules());
+
+        // Then
+        assertThat(totalPrice, is(30L));
+        assertThat(checkoutEngine.checkout(checkoutTestData.getCheckoutItems(), checkoutTestData.getPricingRules()), is(0.3));
+    }
+
+    @Test
+    public void given_itemQuantitiesToCheckoutAreEmpty_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_CHECKOUT_ITEMS);
+
+        // When
+        checkoutEngine.checkoutQuantities(Collections.emptyMap(), Maps.newHashMap());
+    }
+
+    @Test
+    public void given_nonPositiveItemQuantityToCheckout_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NON_POSITIVE_CHECKOUT_QUANTITIES);
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+
+        // When
+        checkoutEngine.checkoutQuantities(Collections.singletonMap(new Item("Apple"), 0), checkoutTestData.getPricingRules());
+    }
+
+    @Test
+    public void given_itemQuantityToCheckout_when_noMatchingPriceRuleFound_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0))
+                .withoutAssociatedPricingRule();
+
+        // When
+        checkoutEngine.checkoutQuantities(checkoutTestData.getCheckoutItemQuantities(), checkoutTestData.getPricingRules());
+    }
+
+    @Test
+    public void given_multipleCheckoutItemQuantities_then_totalPriceMatchesTheExpandedCheckout(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+
+        // When
+        double totalPrice = checkoutEngine
+                .checkoutQuantities(checkoutTestData.getCheckoutItemQuantities(), checkoutTestData.getPricingRules());
+
+        // Then
+        assertThat(totalPrice, is(checkoutEngine.checkout(checkoutTestData.getCheckoutItems(), checkoutTestData.getPricingRules())));
+    }
+
+
+    @Test
+    public void given_nullPricingCatalog_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_PRICING_RULES);
+
+        // When
+        checkoutEngine.checkoutInMinorUnits(asList(new Item("Foo")), (PricingCatalog) null);
+    }
+
+    @Test
+    public void given_pricingCatalog_when_noMatchingPriceRuleFound_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0))
+                .withoutAssociatedPricingRule();
+
+        // When
+        checkoutEngine.checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), PricingCatalog.of(checkoutTestData.getPricingRules()));
+    }
+
+    @Test
+    public void given_pricingCatalog_then_totalPriceMatchesTheRulesCheckout(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+
+        // When
+        long totalPrice = checkoutEngine.checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), pricingCatalog);
+        long totalPriceOfQuantities = checkoutEngine.checkoutQuantitiesInMinorUnits(checkoutTestData.getCheckoutItemQuantities(), pricingCatalog);
+
+        // Then
+        assertThat(totalPrice, is(1110L));
+        assertThat(totalPriceOfQuantities, is(1110L));
+    }
+
+
+    @Test
+    public void given_scannedSkuIds_then_totalPriceMatchesTheItemCheckout(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        int[] scannedSkuIds = checkoutTestData.getCheckoutItems().stream().mapToInt(pricingCatalog::skuIdOf).toArray();
+
+        // When
+        long totalPrice = checkoutEngine.checkoutInMinorUnits(scannedSkuIds, pricingCatalog);
+
+        // Then
+        assertThat(totalPrice, is(checkoutEngine.checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), pricingCatalog)));
+    }
+
+    @Test
+    public void given_skuIdWithoutRule_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+
+        // When
+        checkoutEngine.checkoutInMinorUnits(new int[]{42}, PricingCatalog.of(checkoutTestData.getPricingRules()));
+    }
+
+    @Test
+    public void given_unknownSkuId_then_explodeRatherThanPriceItAtZero(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+
+        // When
+        checkoutEngine.checkoutInMinorUnits(new int[]{SkuRegistry.UNKNOWN_SKU, SkuRegistry.UNKNOWN_SKU}, PricingCatalog.of(checkoutTestData.getPricingRules()));
+    }
+
+    @Test
+    public void given_skuQuantityLineOfAnUnknownSkuId_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+
+        // When
+        checkoutEngine.checkoutQuantitiesInMinorUnits(new int[]{0, SkuRegistry.UNKNOWN_SKU}, new int[]{1, 5}, PricingCatalog.of(checkoutTestData.getPricingRules()));
+    }
+
+    @Test
+    public void given_skuQuantityLinesRepeatingASku_then_linesAreCombinedBeforePricing(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        int apple = pricingCatalog.skuIdOf(new Item("Apple"));
+
+        // When
+        long totalPrice = checkoutEngine.checkoutQuantitiesInMinorUnits(new int[]{apple, apple}, new int[]{1, 2}, pricingCatalog);
+
+        // Then
+        assertThat(totalPrice, is(500L));
+    }
+
+    @Test
+    public void given_skuQuantityLinesOfDifferentLengths_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISMATCHED_CHECKOUT_QUANTITIES);
+
+        // Given
+        checkoutData()
+                .apple(quantity(1), unitPrice(1.0));
+
+        // When
+        checkoutEngine.checkoutQuantitiesInMinorUnits(new int[]{0, 0}, new int[]{1}, PricingCatalog.of(checkoutTestData.getPricingRules()));
+    }
+
+
+    @Test
+    public void given_severalItemsWithoutRules_when_checkedOut_then_everyOneIsReportedOnce(){
+        // Given
+        checkoutData()
+                .apple(quantity(2), unitPrice(1.0));
+        Item kiwi = new Item("Kiwi");
+        Item mango = new Item("Mango");
+
+        try {
+            // When
+            checkoutEngine.checkout(asList(kiwi, new Item("Apple"), mango, kiwi), checkoutTestData.getPricingRules());
+            fail();
+        } catch (UnpricedItemsException unpricedItemsException) {
+            // Then
+            assertThat(new HashSet<>(unpricedItemsException.getUnpricedItems()), is(new HashSet<>(asList(kiwi, mango))));
+            assertThat(unpricedItemsException.getMessage(), containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+            assertThat(unpricedItemsException.getMessage(), containsString("Mango"));
+        }
+    }
+
+    @Test
+    public void given_severalItemsWithoutCatalogRules_when_checkedOut_then_theyAreReportedInScanOrder(){
+        // Given
+        checkoutData()
+                .apple(quantity(2), unitPrice(1.0));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        Item kiwi = new Item("Kiwi");
+        Item mango = new Item("Mango");
+
+        try {
+            // When
+            checkoutEngine.checkoutInMinorUnits(asList(mango, new Item("Apple"), kiwi, mango), pricingCatalog);
+            fail();
+        } catch (UnpricedItemsException unpricedItemsException) {
+            // Then
+            assertThat(unpricedItemsException.getUnpricedItems(), is(asList(mango, kiwi)));
+        }
+    }
+
+    @Test
+    public void given_quantitiesOfSeveralItemsWithoutRules_when_checkedOut_then_everyOneIsReported(){
+        // Given
+        checkoutData()
+                .apple(quantity(2), unitPrice(1.0));
+        Item kiwi = new Item("Kiwi");
+        Item mango = new Item("Mango");
+        Map<Item, Integer> checkoutItemQuantities = new LinkedHashMap<>();
+        checkoutItemQuantities.put(kiwi, 1);
+        checkoutItemQuantities.put(new Item("Apple"), 2);
+        checkoutItemQuantities.put(mango, 3);
+
+        try {
+            // When
+            checkoutEngine.checkoutQuantitiesInMinorUnits(checkoutItemQuantities, checkoutTestData.getPricingRules());
+            fail();
+        } catch (UnpricedItemsException unpricedItemsException) {
+            // Then
+            assertThat(unpricedItemsException.getUnpricedItems(), is(asList(kiwi, mango)));
+        }
+    }
+
+    @Test
+    public void given_itemsWithoutCatalogRules_when_pricingWhatWeCan_then_theRestIsReportedOnTheResult(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        Item apple = new Item("Apple");
+        Item kiwi = new Item("Kiwi");
+
+        // When
+        CheckoutResult checkoutResult = checkoutEngine.checkoutPricedItemsAgainst(asList(apple, kiwi, apple, apple, kiwi), pricingCatalog);
+
+        // Then
+        assertThat(checkoutResult.getTotalInMinorUnits(), is(500L));
+        assertThat(checkoutResult.isComplete(), is(false));
+        assertThat(checkoutResult.getUnpricedItems(), is(asList(kiwi)));
+        assertThat(checkoutResult.receipt().getLines().size(), is(1));
+    }
+
+    @Test
+    public void given_everyItemPriced_when_pricingWhatWeCan_then_theResultIsComplete(){
+        // Given
+        checkoutData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2));
+        PricingCatalog pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+
+        // When
+        CheckoutResult checkoutResult = checkoutEngine.checkoutPricedItemsAgainst(checkoutTestData.getCheckoutItems(), pricingCatalog);
+
+        // Then
+        assertThat(checkoutResult, is(checkoutEngine.checkoutAgainst(checkoutTestData.getCheckoutItems(), pricingCatalog)));
+        assertThat(checkoutResult.isComplete(), is(true));
+    }
+
+
     private CheckoutTestData checkoutData(){
         checkoutTestData = new CheckoutTestData();
         return checkoutTestData;
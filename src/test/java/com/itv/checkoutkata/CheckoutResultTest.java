@@ -0,0 +1,121 @@
+package com.itv.checkoutkata;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.stream.Collectors;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static com.itv.checkoutkata.ErrorMessages.RECEIPT_NOT_ITEMISED;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CheckoutResultTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+    private static final Item PEAR = new Item("Pears");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private PricingCatalog pricingCatalog;
+
+    private CheckoutEngine checkoutEngine;
+
+    @Before
+    public void setup() {
+        checkoutEngine = new CheckoutEngine();
+        pricingCatalog = PricingCatalog.of(new CheckoutTestData()
+                .apple(quantity(5), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(3), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3))
+                .getPricingRules());
+    }
+
+    @Test
+    public void given_catalogCheckout_when_receiptIsItemised_then_eachLineShowsHowItsRuleApplied(){
+        // Given
+        CheckoutResult checkoutResult = checkoutEngine.checkoutItemisedAgainst(
+                asList(APPLE, PEAR, APPLE, BANANA, APPLE, PEAR, APPLE, BANANA, APPLE, PEAR), pricingCatalog);
+
+        // When
+        Receipt receipt = checkoutResult.receipt();
+
+        // Then
+        assertThat(receipt.getLines().size(), is(3));
+
+        ReceiptLine apples = receipt.lineFor(APPLE);
+        assertThat(apples.getQuantity(), is(5));
+        assertThat(apples.getMultiPriceApplications(), is(2));
+        assertThat(apples.getUnitPricedRemainder(), is(1));
+        assertThat(apples.getPriceInMinorUnits(), is(800L));
+        assertThat(apples.getSavingsInMinorUnits(), is(200L));
+
+        ReceiptLine bananas = receipt.lineFor(BANANA);
+        assertThat(bananas.getMultiPriceApplications(), is(0));
+        assertThat(bananas.getUnitPricedRemainder(), is(2));
+        assertThat(bananas.getPriceInMinorUnits(), is(200L));
+        assertThat(bananas.getSavingsInMinorUnits(), is(0L));
+
+        ReceiptLine pears = receipt.lineFor(PEAR);
+        assertThat(pears.getMultiPriceApplications(), is(1));
+        assertThat(pears.getUnitPricedRemainder(), is(0));
+        assertThat(pears.getPriceInMinorUnits(), is(120L));
+        assertThat(pears.getSavingsInMinorUnits(), is(30L));
+
+        assertThat(receipt.getTotalInMinorUnits(), is(checkoutResult.getTotalInMinorUnits()));
+        assertThat(receipt.getTotalInMinorUnits(), is(1120L));
+        assertThat(receipt.getSavingsInMinorUnits(), is(230L));
+    }
+
+    @Test
+    public void given_catalogCheckout_then_receiptLinesAreInItemNameOrderAndBuiltOnce(){
+        // Given
+        CheckoutResult checkoutResult = checkoutEngine.checkoutItemisedAgainst(asList(PEAR, BANANA, APPLE), pricingCatalog);
+
+        // When
+        Receipt receipt = checkoutResult.receipt();
+
+        // Then
+        assertThat(receipt.getLines().stream().map(ReceiptLine::getItem).collect(Collectors.toList()), is(asList(APPLE, BANANA, PEAR)));
+        assertThat(checkoutResult.receipt(), is(sameInstance(receipt)));
+        assertThat(receipt.lineFor(new Item("Whatever")), is(nullValue()));
+    }
+
+    @Test
+    public void given_itemisableAndPlainResultsOfTheSameTotal_then_theyAreEqual(){
+        // Given
+        CheckoutResult itemisable = checkoutEngine.checkoutItemisedAgainst(asList(APPLE, APPLE), pricingCatalog);
+
+        // Then
+        assertThat(itemisable, is(new CheckoutResult(300L, pricingCatalog.getVersion())));
+        assertThat(itemisable.isItemisable(), is(true));
+    }
+
+    @Test
+    public void given_totalOnlyCheckout_then_itIsNotItemisable(){
+        // When
+        CheckoutResult checkoutResult = checkoutEngine.checkoutAgainst(asList(APPLE, APPLE), pricingCatalog);
+
+        // Then
+        assertThat(checkoutResult, is(new CheckoutResult(300L, pricingCatalog.getVersion())));
+        assertThat(checkoutResult.isItemisable(), is(false));
+    }
+
+    @Test
+    public void given_resultWithoutQuantities_when_receiptIsAskedFor_then_throwsIllegalStateException(){
+        // Given
+        CheckoutResult checkoutResult = new CheckoutResult(300L, pricingCatalog.getVersion());
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(RECEIPT_NOT_ITEMISED);
+
+        // When
+        checkoutResult.receipt();
+    }
+}
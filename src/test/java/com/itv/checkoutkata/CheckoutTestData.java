@@ -12,6 +12,7 @@ import java.util.Map;
 public class CheckoutTestData {
 
     private List<Item> checkoutItems = new ArrayList<>();
+    private Map<Item, Integer> checkoutItemQuantities = Maps.newHashMap();
     private Map<Item, PricingRule> pricingRules = Maps.newHashMap();
 
     public CheckoutTestData apple(int quantity, double unitPrice, double multiPrice, int multiPricedQuantity) {
@@ -30,12 +31,17 @@ public class CheckoutTestData {
         return getCheckoutTestData(quantity, unitPrice, multiPrice, multiPricedQuantity, "Pears");
     }
 
+    public CheckoutTestData item(String name, int quantity, double unitPrice, double multiPrice, int multiPricedQuantity){
+        return getCheckoutTestData(quantity, unitPrice, multiPrice, multiPricedQuantity, name);
+    }
+
     private CheckoutTestData getCheckoutTestData(int quantity, double unitPrice, double multiPrice, int multiPriceQuantity, String name) {
         Item apple = new Item(name);
 
         for(int i = 0 ; i < quantity ; i++){
             checkoutItems.add(apple);
         }
+        checkoutItemQuantities.merge(apple, quantity, Integer::sum);
 
         pricingRules.put(apple, PricingRule.builder().item(apple).unitPrice(unitPrice).multiPrice(multiPrice).multiPricedQuantity(multiPriceQuantity).build());
 
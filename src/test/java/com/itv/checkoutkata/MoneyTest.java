@@ -0,0 +1,20 @@
+package com.itv.checkoutkata;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MoneyTest {
+
+    @Test
+    public void given_majorUnitsThatAreInexactAsDoubles_then_minorUnitsAreRoundedToTheNearestPenny(){
+        assertThat(Money.toMinorUnits(1.2), is(120L));
+        assertThat(Money.toMinorUnits(0.1 + 0.2), is(30L));
+    }
+
+    @Test
+    public void given_minorUnits_then_majorUnitsAreTheClosestDouble(){
+        assertThat(Money.toMajorUnits(1110), is(11.1));
+    }
+}
@@ -0,0 +1,155 @@
+package com.itv.checkoutkata;
+
+import com.google.common.collect.ImmutableMap;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+
+import static com.itv.checkoutkata.ErrorMessages.FOREIGN_SKU_REGISTRY;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OpenBasketsTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+
+    private static final PricingRule APPLE_RULE = new PricingRule(APPLE, 0.5, 1.3, 3);
+    private static final PricingRule BANANA_RULE = new PricingRule(BANANA, 0.3, 0, 0);
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_changedRule_when_published_then_openBasketsHoldingItAreRepriced(){
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE, BANANA, BANANA_RULE));
+        Basket apples = openBaskets.open();
+        Basket bananas = openBaskets.open();
+        scan(apples, APPLE, APPLE, APPLE, APPLE, BANANA);
+        scan(bananas, BANANA, BANANA);
+
+        // When
+        openBaskets.publish(ImmutableMap.of(APPLE, new PricingRule(APPLE, 0.4, 1.0, 3), BANANA, BANANA_RULE));
+
+        // Then
+        assertThat(apples.totalInMinorUnits(), is(100L + 40L + 30L));
+        assertThat(bananas.totalInMinorUnits(), is(60L));
+    }
+
+    @Test
+    public void given_changedRuleOnly_when_publishedAsChanges_then_openBasketsHoldingItAreRepricedAndOtherRulesKept(){
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE, BANANA, BANANA_RULE));
+        Basket apples = openBaskets.open();
+        Basket bananas = openBaskets.open();
+        scan(apples, APPLE, APPLE, APPLE, APPLE, BANANA);
+        scan(bananas, BANANA, BANANA);
+
+        // When
+        PricingCatalog published = openBaskets.publishChanges(ImmutableMap.of(APPLE, new PricingRule(APPLE, 0.4, 1.0, 3)));
+
+        // Then
+        assertThat(apples.totalInMinorUnits(), is(100L + 40L + 30L));
+        assertThat(bananas.totalInMinorUnits(), is(60L));
+        assertThat(published.ruleFor(BANANA), is(BANANA_RULE));
+        assertThat(openBaskets.current(), is(published));
+    }
+
+    @Test
+    public void given_publishedCatalog_when_scanning_then_newRulesApply(){
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE, BANANA, BANANA_RULE));
+        Basket basket = openBaskets.open();
+        scan(basket, BANANA);
+
+        // When
+        openBaskets.publish(ImmutableMap.of(APPLE, new PricingRule(APPLE, 0.4, 0, 0), BANANA, BANANA_RULE));
+        scan(basket, APPLE, APPLE);
+
+        // Then
+        assertThat(basket.totalInMinorUnits(), is(30L + 80L));
+    }
+
+    @Test
+    public void given_repricedBaskets_then_totalsAgreeWithCheckingOutAgainstTheNewRules(){
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE, BANANA, BANANA_RULE));
+        Basket basket = openBaskets.open();
+        scan(basket, APPLE, BANANA, APPLE, BANANA, APPLE, APPLE, APPLE, BANANA);
+        basket.remove(BANANA);
+        ImmutableMap<Item, PricingRule> newRules = ImmutableMap.of(
+                APPLE, new PricingRule(APPLE, 0.45, 0.8, 2),
+                BANANA, new PricingRule(BANANA, 0.35, 0.6, 2));
+
+        // When
+        openBaskets.publish(newRules);
+
+        // Then
+        long expectedTotal = new CheckoutEngine().checkoutInMinorUnits(
+                Arrays.asList(APPLE, APPLE, APPLE, APPLE, APPLE, BANANA, BANANA), newRules);
+        assertThat(basket.totalInMinorUnits(), is(expectedTotal));
+    }
+
+    @Test
+    public void given_basketsOpenAndClosed_then_onlyBasketsHoldingASkuAreIndexedUnderIt(){
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE, BANANA, BANANA_RULE));
+        int apple = openBaskets.current().skuIdOf(APPLE);
+        Basket first = openBaskets.open();
+        Basket second = openBaskets.open();
+        scan(first, APPLE, APPLE);
+        scan(second, APPLE, BANANA);
+
+        // When
+        second.remove(APPLE);
+        openBaskets.close(first);
+        openBaskets.publish(ImmutableMap.of(APPLE, new PricingRule(APPLE, 0.1, 0, 0), BANANA, BANANA_RULE));
+
+        // Then
+        assertThat(openBaskets.basketsHoldingSku(apple), is(0));
+        assertThat(first.totalInMinorUnits(), is(100L));
+        assertThat(second.totalInMinorUnits(), is(30L));
+    }
+
+    @Test
+    public void given_changedSkuInAnOpenBasketLosesItsRule_when_published_then_explodeWithoutRepricing(){
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE, BANANA, BANANA_RULE));
+        Basket basket = openBaskets.open();
+        scan(basket, APPLE, BANANA);
+
+        // Then
+        expectedException.expect(UnpricedItemsException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+        expectedException.expectMessage("Banana");
+
+        // When
+        try {
+            openBaskets.publish(ImmutableMap.of(APPLE, new PricingRule(APPLE, 0.1, 0, 0)));
+        } finally {
+            assertThat(basket.totalInMinorUnits(), is(80L));
+        }
+    }
+
+    @Test
+    public void given_catalogOnAnotherSkuRegistry_when_published_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(FOREIGN_SKU_REGISTRY);
+
+        // Given
+        OpenBaskets openBaskets = new OpenBaskets(ImmutableMap.of(APPLE, APPLE_RULE));
+
+        // When
+        openBaskets.publish(PricingCatalog.of(ImmutableMap.of(APPLE, APPLE_RULE)));
+    }
+
+    private static void scan(Basket basket, Item... items) {
+        Arrays.stream(items).forEach(basket::scan);
+    }
+}
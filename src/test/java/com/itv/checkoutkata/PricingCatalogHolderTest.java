@@ -0,0 +1,127 @@
+package com.itv.checkoutkata;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.itv.checkoutkata.ErrorMessages.FOREIGN_SKU_REGISTRY;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PricingCatalogHolderTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_newRulesPublished_then_checkoutsUseTheNewVersion(){
+        // Given
+        PricingCatalogHolder pricingCatalogHolder = new PricingCatalogHolder(rules(1.0));
+        CheckoutEngine checkoutEngine = new CheckoutEngine();
+        List<Item> checkoutItems = Arrays.asList(APPLE, BANANA);
+
+        CheckoutResult before = checkoutEngine.checkoutAgainst(checkoutItems, pricingCatalogHolder);
+
+        // When
+        PricingCatalog published = pricingCatalogHolder.publish(rules(2.0));
+
+        // Then
+        CheckoutResult after = checkoutEngine.checkoutAgainst(checkoutItems, pricingCatalogHolder);
+        assertThat(before.getTotalInMinorUnits(), is(200L));
+        assertThat(after.getTotalInMinorUnits(), is(400L));
+        assertThat(after.getCatalogVersion(), is(published.getVersion()));
+        assertThat(after.getCatalogVersion(), is(not(before.getCatalogVersion())));
+    }
+
+    @Test
+    public void given_olderCatalogPublishedLate_then_newerVersionIsKept(){
+        // Given
+        PricingCatalogHolder pricingCatalogHolder = new PricingCatalogHolder(rules(1.0));
+        SkuRegistry skuRegistry = pricingCatalogHolder.getSkuRegistry();
+        PricingCatalog older = PricingCatalog.of(rules(2.0), skuRegistry);
+        PricingCatalog newer = PricingCatalog.of(rules(3.0), skuRegistry);
+
+        // When
+        pricingCatalogHolder.publish(newer);
+        pricingCatalogHolder.publish(older);
+
+        // Then
+        assertThat(pricingCatalogHolder.current(), is(newer));
+    }
+
+    @Test
+    public void given_catalogOnAnotherRegistry_when_published_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(FOREIGN_SKU_REGISTRY);
+
+        // When
+        new PricingCatalogHolder(rules(1.0)).publish(PricingCatalog.of(rules(2.0)));
+    }
+
+    @Test
+    public void given_concurrentPublishes_then_everyCheckoutIsPricedAgainstOneConsistentVersion() throws Exception {
+        // Given
+        PricingCatalogHolder pricingCatalogHolder = new PricingCatalogHolder(rules(1.0));
+        Map<Long, Long> expectedTotalsByVersion = new ConcurrentHashMap<>();
+        expectedTotalsByVersion.put(pricingCatalogHolder.current().getVersion(), 200L);
+
+        CheckoutEngine checkoutEngine = new CheckoutEngine();
+        List<Item> checkoutItems = Arrays.asList(APPLE, BANANA);
+        AtomicBoolean publishing = new AtomicBoolean(true);
+        CountDownLatch started = new CountDownLatch(4);
+        ExecutorService tills = Executors.newFixedThreadPool(4);
+
+        // When
+        Future<?>[] checkouts = new Future<?>[4];
+        for (int till = 0; till < 4; till++) {
+            checkouts[till] = tills.submit(() -> {
+                started.countDown();
+                while (publishing.get()) {
+                    CheckoutResult checkoutResult = checkoutEngine.checkoutAgainst(checkoutItems, pricingCatalogHolder);
+                    assertThat(checkoutResult.getTotalInMinorUnits(), is(expectedTotalsByVersion.get(checkoutResult.getCatalogVersion())));
+                }
+                return null;
+            });
+        }
+
+        started.await();
+        SkuRegistry skuRegistry = pricingCatalogHolder.getSkuRegistry();
+        for (int price = 2; price <= 500; price++) {
+            PricingCatalog pricingCatalog = PricingCatalog.of(rules(price), skuRegistry);
+            expectedTotalsByVersion.put(pricingCatalog.getVersion(), price * 200L);
+            pricingCatalogHolder.publish(pricingCatalog);
+        }
+        publishing.set(false);
+
+        // Then
+        for (Future<?> checkout : checkouts) {
+            checkout.get();
+        }
+        tills.shutdown();
+        tills.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private static Map<Item, PricingRule> rules(double unitPrice) {
+        Map<Item, PricingRule> pricingRules = new ConcurrentHashMap<>();
+        pricingRules.put(APPLE, new PricingRule(APPLE, unitPrice, 0, 0));
+        pricingRules.put(BANANA, new PricingRule(BANANA, unitPrice, 0, 0));
+        return Collections.unmodifiableMap(pricingRules);
+    }
+}
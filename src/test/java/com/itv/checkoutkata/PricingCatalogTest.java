@@ -0,0 +1,204 @@
+package com.itv.checkoutkata;
+
+import com.google.common.collect.Maps;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static com.itv.checkoutkata.ErrorMessages.INCONSISTENT_PRICING_RULE;
+import static com.itv.checkoutkata.ErrorMessages.MISMATCHED_PRICING_RULE;
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PricingCatalogTest {
+
+    private static final Item APPLE = new Item("Apple");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_emptyPricingRules_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_PRICING_RULES);
+
+        // When
+        PricingCatalog.of(Maps.newHashMap());
+    }
+
+    @Test
+    public void given_multiPriceWithoutMultiPricedQuantity_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INCONSISTENT_PRICING_RULE));
+
+        // When
+        PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 1.5, 1)));
+    }
+
+    @Test
+    public void given_multiPricedQuantityWithoutMultiPrice_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INCONSISTENT_PRICING_RULE));
+
+        // When
+        PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 0, 3)));
+    }
+
+    @Test
+    public void given_negativeUnitPrice_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INCONSISTENT_PRICING_RULE));
+
+        // When
+        PricingCatalog.of(rules(new PricingRule(APPLE, -1.0, 0, 0)));
+    }
+
+    @Test
+    public void given_ruleKeyedByAnotherItem_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(MISMATCHED_PRICING_RULE));
+
+        // When
+        PricingCatalog.of(Collections.singletonMap(new Item("Banana"), new PricingRule(APPLE, 1.0, 0, 0)));
+    }
+
+    @Test
+    public void given_validRules_then_rulesCanBeLookedUpByItem(){
+        // Given
+        PricingRule pricingRule = new PricingRule(APPLE, 1.0, 1.5, 2);
+
+        // When
+        PricingCatalog pricingCatalog = PricingCatalog.of(rules(pricingRule));
+
+        // Then
+        assertThat(pricingCatalog.ruleFor(APPLE), is(pricingRule));
+        assertThat(pricingCatalog.ruleFor(new Item("Banana")), is(nullValue()));
+        assertThat(pricingCatalog.size(), is(1));
+    }
+
+    @Test
+    public void given_itemWithoutRule_when_ruleIsRequired_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // When
+        PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 0, 0))).requireRuleFor(new Item("Banana"));
+    }
+
+    @Test
+    public void given_sourceRulesChangeAfterwards_then_catalogIsUnaffected(){
+        // Given
+        Map<Item, PricingRule> pricingRules = rules(new PricingRule(APPLE, 1.0, 0, 0));
+        PricingCatalog pricingCatalog = PricingCatalog.of(pricingRules);
+
+        // When
+        pricingRules.clear();
+
+        // Then
+        assertThat(pricingCatalog.hasRuleFor(APPLE), is(true));
+    }
+
+    @Test
+    public void given_catalogsSharingARegistry_then_theyAgreeOnSkuIds(){
+        // Given
+        SkuRegistry skuRegistry = new SkuRegistry();
+        Item banana = new Item("Banana");
+        PricingCatalog first = PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 0, 0)), skuRegistry);
+        PricingCatalog second = PricingCatalog.of(rules(new PricingRule(banana, 2.0, 0, 0), new PricingRule(APPLE, 3.0, 0, 0)), skuRegistry);
+
+        // Then
+        assertThat(second.skuIdOf(APPLE), is(first.skuIdOf(APPLE)));
+        assertThat(first.hasRuleFor(second.skuIdOf(banana)), is(false));
+        assertThat(second.priceInMinorUnits(first.skuIdOf(APPLE), 2), is(600L));
+    }
+
+    @Test
+    public void given_skuIdWithoutRule_when_priced_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // When
+        PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 0, 0))).priceInMinorUnits(1, 1);
+    }
+
+    @Test
+    public void given_previousCatalog_then_onlySkusWithAddedRemovedOrChangedRulesAreReported(){
+        // Given
+        Item banana = new Item("Banana");
+        Item cherry = new Item("Cherry");
+        Map<Item, PricingRule> previousRules = Maps.newHashMap();
+        previousRules.put(APPLE, new PricingRule(APPLE, 1.0, 0, 0));
+        previousRules.put(banana, new PricingRule(banana, 1.0, 1.5, 2));
+        PricingCatalog previousCatalog = PricingCatalog.of(previousRules);
+        Map<Item, PricingRule> newRules = Maps.newHashMap();
+        newRules.put(APPLE, new PricingRule(APPLE, 1.0, 0, 0));
+        newRules.put(cherry, new PricingRule(cherry, 2.0, 0, 0));
+
+        // When
+        int[] changedSkuIds = PricingCatalog.of(newRules, previousCatalog.getSkuRegistry()).changedSkuIdsSince(previousCatalog);
+
+        // Then
+        assertThat(changedSkuIds.length, is(2));
+        assertThat(changedSkuIds[0], is(previousCatalog.skuIdOf(banana)));
+        assertThat(changedSkuIds[1], is(previousCatalog.getSkuRegistry().idOf(cherry)));
+    }
+
+    @Test
+    public void given_catalogDerivedWithRules_then_onlyTheSkusItChangedAreReported(){
+        // Given
+        Item banana = new Item("Banana");
+        Item cherry = new Item("Cherry");
+        PricingCatalog previousCatalog = PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 0, 0), new PricingRule(banana, 1.0, 1.5, 2)));
+
+        // When
+        PricingCatalog derivedCatalog = previousCatalog.withRules(rules(
+                new PricingRule(APPLE, 1.0, 0, 0), new PricingRule(banana, 0.8, 1.5, 2), new PricingRule(cherry, 2.0, 0, 0)));
+
+        // Then
+        int[] changedSkuIds = derivedCatalog.changedSkuIdsSince(previousCatalog);
+        assertThat(changedSkuIds.length, is(2));
+        assertThat(changedSkuIds[0], is(derivedCatalog.skuIdOf(banana)));
+        assertThat(changedSkuIds[1], is(derivedCatalog.skuIdOf(cherry)));
+        assertThat(derivedCatalog.size(), is(3));
+        assertThat(derivedCatalog.ruleFor(APPLE), is(previousCatalog.ruleFor(APPLE)));
+        assertThat(derivedCatalog.priceInMinorUnits(derivedCatalog.skuIdOf(banana), 1), is(80L));
+        assertThat(previousCatalog.hasRuleFor(cherry), is(false));
+    }
+
+    @Test
+    public void given_catalogDerivedTwice_then_changesSinceTheFirstAreFoundByComparingRules(){
+        // Given
+        Item banana = new Item("Banana");
+        PricingCatalog firstCatalog = PricingCatalog.of(rules(new PricingRule(APPLE, 1.0, 0, 0), new PricingRule(banana, 1.0, 0, 0)));
+        PricingCatalog secondCatalog = firstCatalog.withRules(rules(new PricingRule(APPLE, 2.0, 0, 0)));
+
+        // When
+        PricingCatalog thirdCatalog = secondCatalog.withRules(rules(new PricingRule(APPLE, 1.0, 0, 0)));
+
+        // Then
+        assertThat(thirdCatalog.changedSkuIdsSince(secondCatalog), is(new int[]{thirdCatalog.skuIdOf(APPLE)}));
+        assertThat(thirdCatalog.changedSkuIdsSince(firstCatalog), is(new int[0]));
+    }
+
+    private static Map<Item, PricingRule> rules(PricingRule... pricingRules) {
+        Map<Item, PricingRule> rules = Maps.newHashMap();
+        for (PricingRule pricingRule : pricingRules) {
+            rules.put(pricingRule.getItem(), pricingRule);
+        }
+        return rules;
+    }
+}
@@ -70,4 +70,74 @@ public class PricingRuleTest {
         assertThat(pricingRule.isMultiPriceEligible(numberOfItems), is(true));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void given_noMultiPrice_then_priceForIsUnitPriceTimesQuantity(){
+        // Given
+        PricingRule pricingRule = new PricingRule(new Item("A"), 0.5, 0, 0);
+
+        // Then
+        assertThat(pricingRule.priceFor(3), is(1.5));
+    }
+
+    @Test
+    public void given_quantityEqualToMultiPricedQuantity_then_priceForIsMultiPrice(){
+        // Given
+        PricingRule pricingRule = new PricingRule(new Item("A"), 2.0, 3.0, 2);
+
+        // Then
+        assertThat(pricingRule.priceFor(2), is(3.0));
+    }
+
+    @Test
+    public void given_quantityGreaterThanMultiPricedQuantity_then_priceForMixesMultiAndUnitPrices(){
+        // Given
+        PricingRule pricingRule = new PricingRule(new Item("A"), 2.0, 3.0, 2);
+
+        // Then
+        assertThat(pricingRule.priceFor(5), is(8.0));
+    }
+
+    @Test
+    public void given_pricesInMinorUnits_then_priceInMinorUnitsForIsExact(){
+        // Given
+        PricingRule pricingRule = PricingRule.builder()
+                .item(new Item("A"))
+                .unitPriceInMinorUnits(10)
+                .multiPriceInMinorUnits(25)
+                .multiPricedQuantity(3)
+                .build();
+
+        // Then
+        assertThat(pricingRule.priceInMinorUnitsFor(7), is(60L));
+    }
+
+    @Test
+    public void given_pricesInMajorUnits_then_builderStoresThemAsMinorUnits(){
+        // Given
+        PricingRule pricingRule = PricingRule.builder().item(new Item("A")).unitPrice(0.1).multiPrice(1.2).build();
+
+        // Then
+        assertThat(pricingRule.getUnitPriceInMinorUnits(), is(10L));
+        assertThat(pricingRule.getMultiPriceInMinorUnits(), is(120L));
+        assertThat(pricingRule.getUnitPrice(), is(0.1));
+    }
+
+    @Test
+    public void given_quantityAboveTheMultiPricedQuantity_then_itSplitsIntoApplicationsAndARemainder(){
+        // Given
+        PricingRule pricingRule = PricingRule.builder()
+                .item(new Item("A"))
+                .unitPriceInMinorUnits(10)
+                .multiPriceInMinorUnits(25)
+                .multiPricedQuantity(3)
+                .build();
+
+        // Then
+        assertThat(pricingRule.multiPriceApplicationsFor(7), is(2));
+        assertThat(pricingRule.unitPricedRemainderFor(7), is(1));
+        assertThat(pricingRule.savingsInMinorUnitsFor(7), is(10L));
+        assertThat(pricingRule.multiPriceApplicationsFor(2), is(0));
+        assertThat(pricingRule.unitPricedRemainderFor(2), is(2));
+    }
+
+}
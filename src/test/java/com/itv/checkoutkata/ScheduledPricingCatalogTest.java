@@ -0,0 +1,155 @@
+package com.itv.checkoutkata;
+
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PRICING_RULE_WINDOW;
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_INSTANT;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ScheduledPricingCatalogTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+
+    private static final PricingRule EVERYDAY_APPLE = new PricingRule(APPLE, 0.5, 1.3, 3);
+    private static final PricingRule WEEKEND_APPLE = new PricingRule(APPLE, 0.45, 1.0, 3);
+    private static final PricingRule HAPPY_HOUR_APPLE = new PricingRule(APPLE, 0.3, 0, 0);
+    private static final PricingRule SEASONAL_BANANA = new PricingRule(BANANA, 0.2, 0, 0);
+
+    private static final Instant SATURDAY = Instant.parse("2016-06-04T00:00:00Z");
+    private static final Instant SATURDAY_FIVE_PM = Instant.parse("2016-06-04T17:00:00Z");
+    private static final Instant SATURDAY_SIX_PM = Instant.parse("2016-06-04T18:00:00Z");
+    private static final Instant MONDAY = Instant.parse("2016-06-06T00:00:00Z");
+
+    private static final ScheduledPricingCatalog SCHEDULED_PRICING_CATALOG = ScheduledPricingCatalog.of(Arrays.asList(
+            ScheduledPricingRule.always(EVERYDAY_APPLE),
+            ScheduledPricingRule.between(WEEKEND_APPLE, SATURDAY, MONDAY),
+            ScheduledPricingRule.between(HAPPY_HOUR_APPLE, SATURDAY_FIVE_PM, SATURDAY_SIX_PM),
+            ScheduledPricingRule.between(SEASONAL_BANANA, SATURDAY, null)));
+
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_nestedWindows_then_theMostRecentlyOpenedRuleApplies(){
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, SATURDAY.minusMillis(1)), is(EVERYDAY_APPLE));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, SATURDAY), is(WEEKEND_APPLE));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, SATURDAY_FIVE_PM.plusSeconds(1800)), is(HAPPY_HOUR_APPLE));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, SATURDAY_SIX_PM), is(WEEKEND_APPLE));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, MONDAY), is(EVERYDAY_APPLE));
+    }
+
+    @Test
+    public void given_instantOutsideEveryWindow_then_thereIsNoRule(){
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(BANANA, SATURDAY.minusMillis(1)), is(nullValue()));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(BANANA, MONDAY.plusSeconds(365 * 24 * 3600)), is(SEASONAL_BANANA));
+    }
+
+    @Test
+    public void given_checkoutsAtDifferentInstants_then_eachIsPricedWithTheRulesInForce(){
+        // Given
+        List<Item> checkoutItems = Arrays.asList(APPLE, APPLE, APPLE, BANANA);
+
+        // Then
+        assertThat(checkoutEngine.checkoutInMinorUnits(checkoutItems, SCHEDULED_PRICING_CATALOG, SATURDAY), is(100L + 20L));
+        assertThat(checkoutEngine.checkoutInMinorUnits(checkoutItems, SCHEDULED_PRICING_CATALOG, SATURDAY_FIVE_PM), is(90L + 20L));
+        assertThat(checkoutEngine.checkoutInMinorUnits(checkoutItems, SCHEDULED_PRICING_CATALOG, MONDAY), is(130L + 20L));
+    }
+
+    @Test
+    public void given_itemWithoutRuleAtTheInstant_when_checkedOut_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // When
+        checkoutEngine.checkoutInMinorUnits(Collections.singletonList(BANANA), SCHEDULED_PRICING_CATALOG, SATURDAY.minusMillis(1));
+    }
+
+    @Test
+    public void given_unknownItemAndItemWithoutRuleAtTheInstant_when_checkedOut_then_bothAreReported(){
+        // Given
+        Item cherry = new Item("Cherry");
+
+        try {
+            // When
+            checkoutEngine.checkoutInMinorUnits(Arrays.asList(cherry, APPLE, BANANA), SCHEDULED_PRICING_CATALOG, SATURDAY.minusMillis(1));
+            fail();
+        } catch (UnpricedItemsException unpricedItemsException) {
+            // Then
+            assertThat(unpricedItemsException.getUnpricedItems(), is(Arrays.asList(cherry, BANANA)));
+        }
+    }
+
+    @Test
+    public void given_windowOpeningWithinAMillisecond_then_instantsAreComparedToTheNanosecond(){
+        // Given
+        Instant opening = SATURDAY.plusNanos(500);
+        ScheduledPricingCatalog scheduledPricingCatalog = ScheduledPricingCatalog.of(Arrays.asList(
+                ScheduledPricingRule.always(EVERYDAY_APPLE),
+                ScheduledPricingRule.between(WEEKEND_APPLE, opening, null)));
+
+        // Then
+        assertThat(scheduledPricingCatalog.ruleFor(APPLE, SATURDAY.plusNanos(499)), is(EVERYDAY_APPLE));
+        assertThat(scheduledPricingCatalog.ruleFor(APPLE, opening), is(WEEKEND_APPLE));
+    }
+
+    @Test
+    public void given_instantsFarOutsideTheEpochMilliRange_then_theyArePricedWithoutOverflowing(){
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, Instant.MAX), is(EVERYDAY_APPLE));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(APPLE, Instant.MIN), is(EVERYDAY_APPLE));
+        assertThat(SCHEDULED_PRICING_CATALOG.ruleFor(BANANA, Instant.MIN), is(nullValue()));
+    }
+
+    @Test
+    public void given_registryOfAPricingCatalog_then_skusHaveTheSameIdsInBoth(){
+        // Given
+        PricingCatalog pricingCatalog = PricingCatalog.of(Collections.singletonMap(BANANA, SEASONAL_BANANA));
+
+        // When
+        ScheduledPricingCatalog scheduledPricingCatalog = ScheduledPricingCatalog.of(Arrays.asList(
+                ScheduledPricingRule.always(EVERYDAY_APPLE),
+                ScheduledPricingRule.always(SEASONAL_BANANA)), pricingCatalog.getSkuRegistry());
+
+        // Then
+        assertThat(scheduledPricingCatalog.skuIdOf(BANANA), is(pricingCatalog.skuIdOf(BANANA)));
+        assertThat(scheduledPricingCatalog.getSkuRegistry(), is(sameInstance(pricingCatalog.getSkuRegistry())));
+        assertThat(scheduledPricingCatalog.priceInMinorUnits(pricingCatalog.skuIdOf(BANANA), 2, MONDAY), is(40L));
+    }
+
+    @Test
+    public void given_missingInstant_when_checkedOut_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_PRICING_INSTANT);
+
+        // When
+        checkoutEngine.checkoutInMinorUnits(Collections.singletonList(APPLE), SCHEDULED_PRICING_CATALOG, null);
+    }
+
+    @Test
+    public void given_windowThatClosesBeforeItOpens_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INVALID_PRICING_RULE_WINDOW));
+
+        // When
+        ScheduledPricingCatalog.of(Collections.singletonList(ScheduledPricingRule.between(WEEKEND_APPLE, MONDAY, SATURDAY)));
+    }
+}
@@ -0,0 +1,172 @@
+package com.itv.checkoutkata;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.itv.checkoutkata.ErrorMessages.BASKET_CHECKED_OUT;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class SharedBasketTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+    private static final Item PEAR = new Item("Pear");
+
+    private static final Map<Item, PricingRule> PRICING_RULES = ImmutableMap.of(
+            APPLE, new PricingRule(APPLE, 0.5, 1.3, 3),
+            BANANA, new PricingRule(BANANA, 0.3, 0, 0),
+            PEAR, new PricingRule(PEAR, 0.45, 0.8, 2));
+
+    private static final int SCANNERS = 8;
+    private static final int SCANS_PER_SCANNER = 20000;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_concurrentScanners_then_totalMatchesTheSequentialCheckout() throws Exception {
+        // Given
+        SharedBasket sharedBasket = new SharedBasket(PRICING_RULES);
+        List<List<Item>> lanes = new ArrayList<>();
+        List<Item> everythingScanned = new ArrayList<>();
+        Random random = new Random(16);
+        Item[] items = {APPLE, BANANA, PEAR};
+        for (int scanner = 0; scanner < SCANNERS; scanner++) {
+            List<Item> lane = new ArrayList<>();
+            for (int scan = 0; scan < SCANS_PER_SCANNER; scan++) {
+                lane.add(items[random.nextInt(items.length)]);
+            }
+            lanes.add(lane);
+            everythingScanned.addAll(lane);
+        }
+
+        // When
+        runConcurrently(lanes, lane -> lane.forEach(sharedBasket::scan));
+        CheckoutResult checkoutResult = sharedBasket.checkout();
+
+        // Then
+        long expectedTotal = new CheckoutEngine().checkoutInMinorUnits(everythingScanned, PRICING_RULES);
+        assertThat(checkoutResult.getTotalInMinorUnits(), is(expectedTotal));
+        assertThat(sharedBasket.quantityOf(APPLE) + sharedBasket.quantityOf(BANANA) + sharedBasket.quantityOf(PEAR),
+                is(SCANNERS * SCANS_PER_SCANNER));
+    }
+
+    @Test
+    public void given_scannersRacingTheCheckout_then_totalIsThatOfExactlyTheAcceptedScans() throws Exception {
+        // Given
+        SharedBasket sharedBasket = new SharedBasket(PRICING_RULES);
+        AtomicInteger acceptedScans = new AtomicInteger();
+        List<List<Item>> lanes = new ArrayList<>();
+        for (int scanner = 0; scanner < SCANNERS; scanner++) {
+            lanes.add(new ArrayList<>());
+        }
+
+        // When
+        CheckoutResult[] checkoutResult = new CheckoutResult[1];
+        runConcurrently(lanes, lane -> {
+            if (lane == lanes.get(0)) {
+                Thread.yield();
+                checkoutResult[0] = sharedBasket.checkout();
+                return;
+            }
+            try {
+                while (true) {
+                    sharedBasket.scan(BANANA);
+                    acceptedScans.incrementAndGet();
+                }
+            } catch (IllegalStateException checkedOut) {
+                assertThat(checkedOut.getMessage(), is(BASKET_CHECKED_OUT));
+            }
+        });
+
+        // Then
+        assertThat(checkoutResult[0].getTotalInMinorUnits(), is(30L * acceptedScans.get()));
+        assertThat(sharedBasket.isCheckedOut(), is(true));
+    }
+
+    @Test
+    public void given_itemWithoutPricingRule_when_scanned_then_explode(){
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // When
+        new SharedBasket(PRICING_RULES).scan(new Item("Whatever"));
+    }
+
+    @Test
+    public void given_skuIdsWithoutPricingRule_when_scanned_then_explodeBeforeAnythingIsCounted(){
+        // Given
+        PricingCatalog pricingCatalog = PricingCatalog.of(PRICING_RULES);
+        SharedBasket sharedBasket = new SharedBasket(pricingCatalog);
+        Item kiwi = new Item("Kiwi");
+        int kiwiSkuId = pricingCatalog.getSkuRegistry().intern(kiwi);
+
+        for (int skuId : new int[]{kiwiSkuId, SkuRegistry.UNKNOWN_SKU}) {
+            try {
+                // When
+                sharedBasket.scan(skuId);
+                fail();
+            } catch (IllegalStateException illegalStateException) {
+                // Then
+                assertThat(illegalStateException.getMessage(), is(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+            }
+        }
+        assertThat(sharedBasket.quantityOf(kiwi), is(0));
+        assertThat(sharedBasket.checkout().getTotalInMinorUnits(), is(0L));
+    }
+
+    @Test
+    public void given_checkedOutBasket_when_scanned_then_explode(){
+        // Given
+        SharedBasket sharedBasket = new SharedBasket(PRICING_RULES);
+        sharedBasket.scan(APPLE);
+        sharedBasket.checkout();
+
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(BASKET_CHECKED_OUT);
+
+        // When
+        sharedBasket.scan(APPLE);
+    }
+
+    private interface Lane {
+        void scan(List<Item> lane);
+    }
+
+    private static void runConcurrently(List<List<Item>> lanes, Lane scanner) throws Exception {
+        ExecutorService scanners = Executors.newFixedThreadPool(lanes.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> scans = new ArrayList<>();
+        for (List<Item> lane : lanes) {
+            scans.add(scanners.submit(() -> {
+                start.await();
+                scanner.scan(lane);
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> scan : scans) {
+            scan.get(30, TimeUnit.SECONDS);
+        }
+        scanners.shutdown();
+    }
+}
@@ -0,0 +1,109 @@
+package com.itv.checkoutkata;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.itv.checkoutkata.ErrorMessages.NEGATIVE_SKU_ID;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SkuQuantitiesTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private SkuQuantities skuQuantities;
+
+    @Before
+    public void setup() {
+        skuQuantities = new SkuQuantities();
+    }
+
+    @Test
+    public void given_noSkusAdded_then_isEmpty(){
+        assertThat(skuQuantities.isEmpty(), is(true));
+        assertThat(skuQuantities.quantityOf(7), is(0));
+    }
+
+    @Test
+    public void given_skuAddedRepeatedly_then_quantitiesAccumulate(){
+        skuQuantities.add(7, 1);
+        skuQuantities.add(7, 2);
+
+        assertThat(skuQuantities.quantityOf(7), is(3));
+        assertThat(skuQuantities.distinctSkus(), is(1));
+    }
+
+    @Test
+    public void given_quantityBroughtBackToZero_then_skuIsNoLongerCounted(){
+        skuQuantities.add(7, 1);
+        skuQuantities.add(7, -1);
+
+        assertThat(skuQuantities.isEmpty(), is(true));
+    }
+
+    @Test
+    public void given_manySkus_then_slotsHoldExactlyTheAddedQuantities(){
+        // Given
+        for (int sku = 0; sku < 10_000; sku++) {
+            skuQuantities.add(sku * 31, sku % 5 + 1);
+        }
+
+        // When
+        Map<Integer, Integer> seen = new HashMap<>();
+        for (int slot = 0; slot < skuQuantities.slots(); slot++) {
+            if (skuQuantities.skuIdAt(slot) != SkuQuantities.NO_SKU) {
+                seen.put(skuQuantities.skuIdAt(slot), skuQuantities.quantityAt(slot));
+            }
+        }
+
+        // Then
+        assertThat(seen.size(), is(10_000));
+        assertThat(skuQuantities.distinctSkus(), is(10_000));
+        for (int sku = 0; sku < 10_000; sku++) {
+            assertThat(seen.get(sku * 31), is(sku % 5 + 1));
+        }
+    }
+
+    @Test
+    public void given_cleared_then_isEmpty(){
+        skuQuantities.add(7, 1);
+
+        skuQuantities.clear();
+
+        assertThat(skuQuantities.isEmpty(), is(true));
+        assertThat(skuQuantities.quantityOf(7), is(0));
+    }
+
+    @Test
+    public void given_outlierCleared_when_smallCountIsCleared_then_shrinksBackToTheInitialCapacity(){
+        int initialSlots = skuQuantities.slots();
+        for (int skuId = 0; skuId < 1000; skuId++) {
+            skuQuantities.add(skuId, 1);
+        }
+        skuQuantities.clear();
+        skuQuantities.add(7, 2);
+
+        skuQuantities.clear();
+        skuQuantities.add(7, 1);
+
+        assertThat(skuQuantities.slots(), is(initialSlots));
+        assertThat(skuQuantities.quantityOf(7), is(1));
+        assertThat(skuQuantities.quantityOf(999), is(0));
+    }
+
+    @Test
+    public void given_negativeSkuId_then_explodeRatherThanTreatItAsAnEmptySlot(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NEGATIVE_SKU_ID);
+
+        // When
+        skuQuantities.add(SkuQuantities.NO_SKU, 3);
+    }
+}
@@ -0,0 +1,55 @@
+package com.itv.checkoutkata;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SkuRegistryTest {
+
+    private SkuRegistry skuRegistry;
+
+    @Before
+    public void setup() {
+        skuRegistry = new SkuRegistry();
+    }
+
+    @Test
+    public void given_newNames_then_idsAreDenseAndInFirstSeenOrder(){
+        assertThat(skuRegistry.intern("Apple"), is(0));
+        assertThat(skuRegistry.intern("Banana"), is(1));
+        assertThat(skuRegistry.intern(new Item("Pears")), is(2));
+        assertThat(skuRegistry.size(), is(3));
+    }
+
+    @Test
+    public void given_nameAlreadyInterned_then_sameIdIsReturned(){
+        // Given
+        int id = skuRegistry.intern("Apple");
+
+        // Then
+        assertThat(skuRegistry.intern("Apple"), is(id));
+        assertThat(skuRegistry.idOf(new Item("Apple")), is(id));
+        assertThat(skuRegistry.size(), is(1));
+    }
+
+    @Test
+    public void given_unknownName_then_idIsUnknown(){
+        assertThat(skuRegistry.idOf("Apple"), is(SkuRegistry.UNKNOWN_SKU));
+    }
+
+    @Test
+    public void given_manyNames_then_everyIdMapsBackToItsName(){
+        // Given
+        for (int sku = 0; sku < 1000; sku++) {
+            skuRegistry.intern("SKU-" + sku);
+        }
+
+        // Then
+        for (int sku = 0; sku < 1000; sku++) {
+            assertThat(skuRegistry.nameOf(sku), is("SKU-" + sku));
+        }
+        assertThat(skuRegistry.itemOf(42), is(new Item("SKU-42")));
+    }
+}
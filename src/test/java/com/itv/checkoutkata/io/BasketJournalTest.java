@@ -0,0 +1,283 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.Item;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.itv.checkoutkata.ErrorMessages.BASKET_JOURNAL_CLOSED;
+import static com.itv.checkoutkata.ErrorMessages.NOT_A_BASKET_JOURNAL_FILE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BasketJournalTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+    private static final Item PEAR = new Item("Pear");
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path journalFile;
+
+    @Before
+    public void setup() {
+        journalFile = temporaryFolder.getRoot().toPath().resolve("baskets.journal");
+    }
+
+    @Test
+    public void given_scansRemovalsAndClosedBaskets_when_replayed_then_onlyOpenBasketsAreRebuilt() throws Exception {
+        // Given
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            basketJournal.scanned(1, APPLE);
+            basketJournal.scanned(1, APPLE);
+            basketJournal.scanned(1, BANANA);
+            basketJournal.removed(1, BANANA);
+            basketJournal.scanned(2, PEAR);
+            basketJournal.closed(2);
+            basketJournal.awaitDurable(basketJournal.scanned(3, PEAR));
+        }
+
+        // When
+        Map<Long, Map<Item, Integer>> openBaskets = BasketJournal.replay(journalFile);
+
+        // Then
+        assertThat(openBaskets.keySet(), is(new HashSet<>(Arrays.asList(1L, 3L))));
+        assertThat(openBaskets.get(1L), is(Collections.singletonMap(APPLE, 2)));
+        assertThat(openBaskets.get(3L), is(Collections.singletonMap(PEAR, 1)));
+    }
+
+    @Test
+    public void given_reopenedJournal_when_moreEventsAreAppended_then_theyFollowTheEarlierOnes() throws Exception {
+        // Given
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            basketJournal.scanned(1, APPLE);
+        }
+
+        // When
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            basketJournal.scanned(1, APPLE);
+            basketJournal.scanned(2, BANANA);
+        }
+
+        // Then
+        Map<Long, Map<Item, Integer>> openBaskets = BasketJournal.replay(journalFile);
+        assertThat(openBaskets.get(1L), is(Collections.singletonMap(APPLE, 2)));
+        assertThat(openBaskets.get(2L), is(Collections.singletonMap(BANANA, 1)));
+    }
+
+    @Test
+    public void given_tornLastRecord_when_reopened_then_itIsDroppedAndOverwritten() throws Exception {
+        // Given
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            basketJournal.scanned(1, APPLE);
+            basketJournal.scanned(1, BANANA);
+        }
+        long validBytes = Files.size(journalFile);
+        Files.write(journalFile, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        // When
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            assertThat(Files.size(journalFile), is(validBytes));
+            basketJournal.scanned(1, PEAR);
+        }
+
+        // Then
+        Map<Item, Integer> expectedQuantities = new HashMap<>();
+        expectedQuantities.put(APPLE, 1);
+        expectedQuantities.put(BANANA, 1);
+        expectedQuantities.put(PEAR, 1);
+        assertThat(BasketJournal.replay(journalFile).get(1L), is(expectedQuantities));
+    }
+
+    @Test
+    public void given_corruptedRecord_when_replayed_then_replayStopsBeforeIt() throws Exception {
+        // Given
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            basketJournal.scanned(1, APPLE);
+            basketJournal.scanned(1, BANANA);
+        }
+        byte[] journal = Files.readAllBytes(journalFile);
+        journal[journal.length - 1] ^= 0x01;
+        Files.write(journalFile, journal);
+
+        // When
+        Map<Long, Map<Item, Integer>> openBaskets = BasketJournal.replay(journalFile);
+
+        // Then
+        assertThat(openBaskets.get(1L), is(Collections.singletonMap(APPLE, 1)));
+    }
+
+    @Test
+    public void given_mostlyClosedBaskets_when_compacted_then_theJournalShrinksAndKeepsTheOpenBaskets() throws Exception {
+        // Given
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile)) {
+            for (long basketId = 0; basketId < 100; basketId++) {
+                basketJournal.scanned(basketId, APPLE);
+                basketJournal.scanned(basketId, BANANA);
+                basketJournal.closed(basketId);
+            }
+            basketJournal.scanned(100, PEAR);
+            basketJournal.awaitDurable(basketJournal.scanned(100, PEAR));
+            long uncompactedBytes = Files.size(journalFile);
+
+            // When
+            basketJournal.compact();
+            basketJournal.scanned(100, APPLE);
+
+            // Then
+            assertTrue(Files.size(journalFile) < uncompactedBytes / 10);
+            assertThat(BasketJournal.replay(journalFile).get(100L), is(Collections.singletonMap(PEAR, 2)));
+        }
+
+        Map<Item, Integer> expectedQuantities = new HashMap<>();
+        expectedQuantities.put(PEAR, 2);
+        expectedQuantities.put(APPLE, 1);
+        assertThat(BasketJournal.replay(journalFile), is(Collections.singletonMap(100L, expectedQuantities)));
+    }
+
+    @Test
+    public void given_scansCommittedDuringCompaction_when_replayed_then_noneAreLost() throws Exception {
+        // Given
+        int scans = 2000;
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile, Duration.ofMillis(1))) {
+            for (long basketId = 0; basketId < 1000; basketId++) {
+                basketJournal.scanned(basketId, APPLE);
+                basketJournal.closed(basketId);
+            }
+            Future<Void> till = executorService.submit(() -> {
+                for (int scan = 0; scan < scans; scan++) {
+                    basketJournal.awaitDurable(basketJournal.scanned(1000, PEAR));
+                }
+                return null;
+            });
+
+            // When
+            while (!till.isDone()) {
+                basketJournal.compact();
+            }
+            till.get();
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // Then
+        assertThat(BasketJournal.replay(journalFile), is(Collections.singletonMap(1000L, Collections.singletonMap(PEAR, scans))));
+        assertFalse(Files.exists(journalFile.resolveSibling(journalFile.getFileName() + ".compacting")));
+    }
+
+    @Test
+    public void given_compactionWhoseRenameFails_then_theJournalStaysAppendableAndLosesNothing() throws Exception {
+        // Given
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile, BasketJournal.DEFAULT_COMMIT_INTERVAL,
+                (replacement, file) -> {
+                    throw new IOException("Rename refused");
+                })) {
+            basketJournal.scanned(1, APPLE);
+            basketJournal.closed(1);
+            basketJournal.awaitDurable(basketJournal.scanned(2, PEAR));
+
+            try {
+                // When
+                basketJournal.compact();
+                fail();
+            } catch (IOException renameFailure) {
+                assertThat(renameFailure.getMessage(), is("Rename refused"));
+            }
+
+            // Then
+            basketJournal.awaitDurable(basketJournal.scanned(2, BANANA));
+        }
+
+        Map<Item, Integer> expectedQuantities = new HashMap<>();
+        expectedQuantities.put(PEAR, 1);
+        expectedQuantities.put(BANANA, 1);
+        assertThat(BasketJournal.replay(journalFile), is(Collections.singletonMap(2L, expectedQuantities)));
+        assertFalse(Files.exists(journalFile.resolveSibling(journalFile.getFileName() + ".compacting")));
+    }
+
+    @Test
+    public void given_concurrentTills_when_eachWaitsForItsScans_then_manyScansShareOneCommit() throws Exception {
+        // Given
+        int tills = 8;
+        int scansPerTill = 500;
+        ExecutorService executorService = Executors.newFixedThreadPool(tills);
+
+        try (BasketJournal basketJournal = BasketJournal.open(journalFile, Duration.ofMillis(1))) {
+            List<Callable<Void>> tillScans = IntStream.range(0, tills)
+                    .<Callable<Void>>mapToObj(till -> () -> {
+                        for (int scan = 0; scan < scansPerTill; scan++) {
+                            basketJournal.awaitDurable(basketJournal.scanned(till, APPLE));
+                        }
+                        return null;
+                    })
+                    .collect(Collectors.toList());
+
+            // When
+            for (Future<Void> tillScan : executorService.invokeAll(tillScans)) {
+                tillScan.get();
+            }
+
+            // Then
+            assertTrue(basketJournal.commits() < tills * scansPerTill);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Map<Long, Map<Item, Integer>> openBaskets = BasketJournal.replay(journalFile);
+        assertThat(openBaskets.size(), is(tills));
+        openBaskets.values().forEach(quantities -> assertThat(quantities, is(Collections.singletonMap(APPLE, scansPerTill))));
+    }
+
+    @Test
+    public void given_closedJournal_when_scanned_then_throwsIllegalStateException() throws Exception {
+        // Given
+        BasketJournal basketJournal = BasketJournal.open(journalFile);
+        basketJournal.close();
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(BASKET_JOURNAL_CLOSED);
+
+        // When
+        basketJournal.scanned(1, APPLE);
+    }
+
+    @Test
+    public void given_fileWhichIsNotAJournal_when_replayed_then_throwsIllegalArgumentException() throws Exception {
+        // Given
+        Files.write(journalFile, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NOT_A_BASKET_JOURNAL_FILE);
+
+        // When
+        BasketJournal.replay(journalFile);
+    }
+}
@@ -0,0 +1,191 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.CheckoutTestData;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static com.itv.checkoutkata.ErrorMessages.NOT_A_PRICING_CATALOG_FILE;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class MappedPricingCatalogTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path catalogFile;
+
+    private CheckoutTestData checkoutTestData;
+
+    @Before
+    public void setup() throws IOException {
+        catalogFile = temporaryFolder.newFile("pricing.catalog").toPath();
+        checkoutTestData = new CheckoutTestData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+    }
+
+    @Test
+    public void given_writtenCatalog_then_everyRuleReadsBackFromTheMappedFile() throws IOException {
+        // Given
+        Map<Item, PricingRule> pricingRules = checkoutTestData.getPricingRules();
+        new BinaryPricingCatalogWriter().write(pricingRules, catalogFile);
+
+        // When
+        MappedPricingCatalog mappedPricingCatalog = MappedPricingCatalog.open(catalogFile);
+
+        // Then
+        assertThat(mappedPricingCatalog.size(), is(3));
+        pricingRules.forEach((item, pricingRule) -> assertThat(mappedPricingCatalog.ruleFor(item), is(pricingRule)));
+        assertThat(mappedPricingCatalog.ruleFor(new Item("Whatever")), is(nullValue()));
+    }
+
+    @Test
+    public void given_mappedCatalog_then_checkoutMatchesCheckoutAgainstTheRules() throws IOException {
+        // Given
+        new BinaryPricingCatalogWriter().write(checkoutTestData.getPricingRules(), catalogFile);
+        CheckoutEngine checkoutEngine = new CheckoutEngine();
+
+        // When
+        long totalPrice = checkoutEngine.checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), MappedPricingCatalog.open(catalogFile));
+
+        // Then
+        assertThat(totalPrice, is(1110L));
+    }
+
+    @Test
+    public void given_largeCatalog_then_everySkuIsFound() throws IOException {
+        // Given
+        CheckoutTestData largeCatalog = new CheckoutTestData();
+        for (int sku = 0; sku < 20_000; sku++) {
+            largeCatalog.item("SKU-" + sku, 1, sku / 100.0, 0, 0);
+        }
+        new BinaryPricingCatalogWriter().write(largeCatalog.getPricingRules(), catalogFile);
+
+        // When
+        MappedPricingCatalog mappedPricingCatalog = MappedPricingCatalog.open(catalogFile);
+
+        // Then
+        for (int sku = 0; sku < 20_000; sku++) {
+            assertThat(mappedPricingCatalog.priceInMinorUnits(new Item("SKU-" + sku), 2), is(2L * sku));
+        }
+    }
+
+    @Test
+    public void given_mappedCatalog_when_fileIsRewritten_then_theMappingKeepsTheOldRulesAndNewOpensSeeTheNew() throws IOException {
+        // Given
+        new BinaryPricingCatalogWriter().write(checkoutTestData.getPricingRules(), catalogFile);
+        MappedPricingCatalog mappedBeforeRewrite = MappedPricingCatalog.open(catalogFile);
+        Item apple = new Item("Apple");
+
+        // When
+        new BinaryPricingCatalogWriter().write(new CheckoutTestData().apple(quantity(1), unitPrice(9.0)).getPricingRules(), catalogFile);
+
+        // Then
+        assertThat(mappedBeforeRewrite.priceInMinorUnits(apple, 1), is(200L));
+        assertThat(MappedPricingCatalog.open(catalogFile).priceInMinorUnits(apple, 1), is(900L));
+        assertThat(Files.exists(catalogFile.resolveSibling(catalogFile.getFileName() + ".writing")), is(false));
+    }
+
+    @Test
+    public void given_itemNotInCatalog_when_priced_then_explode() throws IOException {
+        // Then
+        expectedException.expect(IllegalStateException.class);
+        expectedException.expectMessage(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS);
+
+        // Given
+        new BinaryPricingCatalogWriter().write(checkoutTestData.getPricingRules(), catalogFile);
+
+        // When
+        MappedPricingCatalog.open(catalogFile).priceInMinorUnits(new Item("Whatever"), 1);
+    }
+
+    @Test
+    public void given_fileThatIsNotACatalog_when_opened_then_explode() throws IOException {
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NOT_A_PRICING_CATALOG_FILE);
+
+        // Given
+        Files.write(catalogFile, "Apple,1.00".getBytes());
+
+        // When
+        MappedPricingCatalog.open(catalogFile);
+    }
+
+    @Test
+    public void given_catalogFileWithCorruptSlotCount_when_opened_then_explode() throws IOException {
+        // Given
+        new BinaryPricingCatalogWriter().write(checkoutTestData.getPricingRules(), catalogFile);
+        byte[] catalog = Files.readAllBytes(catalogFile);
+
+        for (int corruptSlots : new int[]{0, -16, 24}) {
+            ByteBuffer.wrap(catalog).putInt(12, corruptSlots);
+            Files.write(catalogFile, catalog);
+
+            try {
+                // When
+                MappedPricingCatalog.open(catalogFile);
+                fail();
+            } catch (IllegalArgumentException illegalArgumentException) {
+                // Then
+                assertThat(illegalArgumentException.getMessage(), is(NOT_A_PRICING_CATALOG_FILE));
+            }
+        }
+    }
+
+    @Test
+    public void given_truncatedCatalogFile_when_opened_then_explode() throws IOException {
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NOT_A_PRICING_CATALOG_FILE);
+
+        // Given
+        new BinaryPricingCatalogWriter().write(checkoutTestData.getPricingRules(), catalogFile);
+        byte[] catalog = Files.readAllBytes(catalogFile);
+        Files.write(catalogFile, Arrays.copyOf(catalog, 4 * Integer.BYTES + 8 * Integer.BYTES));
+
+        // When
+        MappedPricingCatalog.open(catalogFile);
+    }
+
+    @Test
+    public void given_severalItemsNotInCatalog_when_checkedOut_then_everyOneIsReported() throws IOException {
+        // Given
+        new BinaryPricingCatalogWriter().write(checkoutTestData.getPricingRules(), catalogFile);
+        Item kiwi = new Item("Kiwi");
+        Item mango = new Item("Mango");
+
+        try {
+            // When
+            new CheckoutEngine().checkoutInMinorUnits(Arrays.asList(kiwi, new Item("Apple"), mango, kiwi), MappedPricingCatalog.open(catalogFile));
+            fail();
+        } catch (UnpricedItemsException unpricedItemsException) {
+            // Then
+            assertThat(new HashSet<>(unpricedItemsException.getUnpricedItems()), is(new HashSet<>(Arrays.asList(kiwi, mango))));
+        }
+    }
+}
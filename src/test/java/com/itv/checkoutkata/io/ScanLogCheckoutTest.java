@@ -0,0 +1,142 @@
+package com.itv.checkoutkata.io;
+
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.CheckoutTestData;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static com.itv.checkoutkata.ErrorMessages.INVALID_SCAN_LOG_DELIMITER;
+import static com.itv.checkoutkata.ErrorMessages.MALFORMED_SCAN_LINE;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ScanLogCheckoutTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PricingCatalog pricingCatalog;
+
+    private StringWriter totals;
+
+    @Before
+    public void setup() {
+        CheckoutTestData checkoutTestData = new CheckoutTestData()
+                .apple(quantity(3), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));
+        pricingCatalog = PricingCatalog.of(checkoutTestData.getPricingRules());
+        totals = new StringWriter();
+    }
+
+    @Test
+    public void given_scanLog_then_oneTotalIsWrittenPerTransaction() throws IOException {
+        // Given
+        String scanLog = "t1,Apple\nt1,Apple\nt1,Banana\nt2,Pears\r\nt2,Apple\n\nt3,Banana";
+
+        // When
+        ScanLogSummary scanLogSummary = new ScanLogCheckout(pricingCatalog, ',').checkout(channelOf(scanLog), totals);
+
+        // Then
+        assertThat(totals.toString(), is("t1,400\nt2,250\nt3,100\n"));
+        assertThat(scanLogSummary, is(new ScanLogSummary(3, 6, 0, 750)));
+    }
+
+    @Test
+    public void given_skuWithoutRule_then_onlyItsTransactionIsUnpriced() throws IOException {
+        // Given
+        String scanLog = "t1|Apple\nt2|Whatever\nt2|Apple\nt3|Banana\n";
+
+        // When
+        ScanLogSummary scanLogSummary = new ScanLogCheckout(pricingCatalog, '|').checkout(channelOf(scanLog), totals);
+
+        // Then
+        assertThat(totals.toString(), is("t1|200\nt2|" + ScanLogCheckout.UNPRICED + "\nt3|100\n"));
+        assertThat(scanLogSummary.getUnpricedBaskets(), is(1L));
+    }
+
+    @Test
+    public void given_logLargerThanTheBuffer_then_totalsMatchCheckingOutEveryBasket() throws IOException {
+        // Given
+        CheckoutEngine checkoutEngine = new CheckoutEngine();
+        String[] skus = {"Apple", "Banana", "Pears"};
+        StringBuilder scanLog = new StringBuilder();
+        StringBuilder expectedTotals = new StringBuilder();
+
+        for (int transaction = 0; transaction < 2_000; transaction++) {
+            List<Item> basket = new ArrayList<>();
+            for (int scan = 0; scan <= transaction % 13; scan++) {
+                String sku = skus[(transaction + scan * 7) % skus.length];
+                basket.add(new Item(sku));
+                scanLog.append("transaction-").append(transaction).append(',').append(sku).append('\n');
+            }
+            expectedTotals.append("transaction-").append(transaction).append(',')
+                    .append(checkoutEngine.checkoutInMinorUnits(basket, pricingCatalog)).append('\n');
+        }
+
+        // When
+        new ScanLogCheckout(pricingCatalog, ',', 64).checkout(channelOf(scanLog.toString()), totals);
+
+        // Then
+        assertThat(totals.toString(), is(expectedTotals.toString()));
+    }
+
+    @Test
+    public void given_scanLogFile_then_totalsFileIsWritten() throws IOException {
+        // Given
+        Path scanLog = temporaryFolder.newFile("scans.log").toPath();
+        Path totalsFile = temporaryFolder.newFile("totals.log").toPath();
+        Files.write(scanLog, "t1,Apple\nt1,Apple\n".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        new ScanLogCheckout(pricingCatalog, ',').checkout(scanLog, totalsFile);
+
+        // Then
+        assertThat(new String(Files.readAllBytes(totalsFile), StandardCharsets.UTF_8), is("t1,300\n"));
+    }
+
+    @Test
+    public void given_lineWithoutSku_then_explode() throws IOException {
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(MALFORMED_SCAN_LINE + 2));
+
+        // When
+        new ScanLogCheckout(pricingCatalog, ',').checkout(channelOf("t1,Apple\nt1\n"), totals);
+    }
+
+    @Test
+    public void given_nonAsciiDelimiter_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INVALID_SCAN_LOG_DELIMITER));
+
+        // When
+        new ScanLogCheckout(pricingCatalog, '\u00A6');
+    }
+
+    private static ReadableByteChannel channelOf(String scanLog) {
+        return Channels.newChannel(new ByteArrayInputStream(scanLog.getBytes(StandardCharsets.UTF_8)));
+    }
+}
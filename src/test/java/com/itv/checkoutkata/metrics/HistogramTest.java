@@ -0,0 +1,76 @@
+package com.itv.checkoutkata.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class HistogramTest {
+
+    private Histogram histogram;
+
+    @Before
+    public void setup() {
+        histogram = new Histogram();
+    }
+
+    @Test
+    public void given_nothingRecorded_then_percentilesAreZero(){
+        assertThat(histogram.count(), is(0L));
+        assertThat(histogram.percentile(99), is(0L));
+    }
+
+    @Test
+    public void given_smallValues_then_theyAreRecordedExactly(){
+        histogram.record(3);
+        histogram.record(7);
+
+        assertThat(histogram.percentile(50), is(3L));
+        assertThat(histogram.max(), is(7L));
+    }
+
+    @Test
+    public void given_uniformValues_then_percentilesAreWithinTheBucketPrecision(){
+        // Given
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+
+        // Then
+        assertThat(histogram.count(), is(100_000L));
+        assertWithinPrecision(histogram.percentile(50), 50_000);
+        assertWithinPrecision(histogram.percentile(99), 99_000);
+        assertWithinPrecision(histogram.max(), 100_000);
+    }
+
+    @Test
+    public void given_otherHistogram_when_added_then_itsValuesAreCountedToo(){
+        // Given
+        Histogram other = new Histogram();
+        histogram.record(3);
+        other.record(7);
+        other.record(9);
+
+        // When
+        histogram.add(other);
+
+        // Then
+        assertThat(histogram.count(), is(3L));
+        assertThat(histogram.percentile(50), is(7L));
+        assertThat(histogram.max(), is(9L));
+        assertThat(other.count(), is(2L));
+    }
+
+    @Test
+    public void given_hugeValue_then_itIsRecorded(){
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.max(), is(Long.MAX_VALUE));
+    }
+
+    private static void assertWithinPrecision(long actual, long expected) {
+        assertTrue(actual + " is not within 1/32 of " + expected, Math.abs(actual - expected) <= expected / 32);
+    }
+}
@@ -0,0 +1,59 @@
+package com.itv.checkoutkata.metrics;
+
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.CheckoutTestData;
+import com.itv.checkoutkata.PricingCatalog;
+import org.junit.Before;
+import org.junit.Test;
+
+import static com.itv.checkoutkata.CheckoutTestData.*;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RecordingCheckoutMetricsTest {
+
+    private RecordingCheckoutMetrics recordingCheckoutMetrics;
+
+    private CheckoutEngine checkoutEngine;
+
+    private CheckoutTestData checkoutTestData;
+
+    @Before
+    public void setup() {
+        recordingCheckoutMetrics = new RecordingCheckoutMetrics();
+        checkoutEngine = new CheckoutEngine(recordingCheckoutMetrics);
+        checkoutTestData = new CheckoutTestData()
+                .apple(quantity(2), unitPrice(2.0), multiPrice(3.0), multiPricedQuantity(2))   // exact multi price
+                .banana(quantity(2), unitPrice(1.0), multiPrice(0.0), multiPricedQuantity(0))  // unit price
+                .pear(quantity(10), unitPrice(0.5), multiPrice(1.2), multiPricedQuantity(3));  // mix price
+    }
+
+    @Test
+    public void given_checkoutAgainstRules_then_everyPhasePathAndBasketSizeIsRecorded(){
+        // When
+        checkoutEngine.checkout(checkoutTestData.getCheckoutItems(), checkoutTestData.getPricingRules());
+
+        // Then
+        assertEveryPhaseAndPathWasRecordedOnce();
+    }
+
+    @Test
+    public void given_checkoutAgainstCatalog_then_everyPhasePathAndBasketSizeIsRecorded(){
+        // When
+        checkoutEngine.checkoutInMinorUnits(checkoutTestData.getCheckoutItems(), PricingCatalog.of(checkoutTestData.getPricingRules()));
+
+        // Then
+        assertEveryPhaseAndPathWasRecordedOnce();
+    }
+
+    private void assertEveryPhaseAndPathWasRecordedOnce() {
+        for (CheckoutPhase checkoutPhase : CheckoutPhase.values()) {
+            assertThat(recordingCheckoutMetrics.latenciesOf(checkoutPhase).count(), is(1L));
+        }
+        for (PricingPath pricingPath : PricingPath.values()) {
+            assertThat(recordingCheckoutMetrics.countOf(pricingPath), is(1L));
+        }
+        assertThat(recordingCheckoutMetrics.basketSizes().count(), is(1L));
+        assertThat(recordingCheckoutMetrics.basketSizes().max(), is(14L));
+    }
+}
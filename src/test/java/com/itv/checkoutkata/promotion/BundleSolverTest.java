@@ -0,0 +1,188 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.PricingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.itv.checkoutkata.ErrorMessages.UNPRICED_PROMOTION_ITEM;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BundleSolverTest {
+
+    private static final Item SANDWICH = new Item("Sandwich");
+    private static final Item WRAP = new Item("Wrap");
+    private static final Item DRINK = new Item("Drink");
+    private static final Item CRISPS = new Item("Crisps");
+
+    private static final PricingCatalog PRICING_CATALOG = PricingCatalog.of(ImmutableMap.of(
+            SANDWICH, new PricingRule(SANDWICH, 2.5, 0, 0),
+            WRAP, new PricingRule(WRAP, 3.0, 0, 0),
+            DRINK, new PricingRule(DRINK, 1.2, 2.0, 2),
+            CRISPS, new PricingRule(CRISPS, 0.8, 0, 0)));
+
+    private static final Bundle MEAL_DEAL = new Bundle(Arrays.asList(
+            ImmutableSet.of(SANDWICH, WRAP), ImmutableSet.of(DRINK), ImmutableSet.of(CRISPS)), 3.5);
+
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_basketMakingUpABundle_then_theBundlePriceApplies(){
+        // Given
+        BundleSolver bundleSolver = new BundleSolver(PRICING_CATALOG, Collections.singletonList(MEAL_DEAL));
+
+        // When
+        BundleAllocation bundleAllocation = checkoutEngine.checkoutWithBundles(Arrays.asList(WRAP, DRINK, CRISPS, CRISPS), bundleSolver);
+
+        // Then
+        assertThat(bundleAllocation.getTotalInMinorUnits(), is(350L + 80L));
+        assertThat(bundleAllocation.getBundles(), is(Collections.singletonList(MEAL_DEAL)));
+        assertThat(bundleAllocation.isOptimal(), is(true));
+    }
+
+    @Test
+    public void given_bundleThatCostsMoreThanItsParts_then_keepThePricingRules(){
+        // Given
+        BundleSolver bundleSolver = new BundleSolver(PRICING_CATALOG, Collections.singletonList(MEAL_DEAL));
+
+        // When
+        BundleAllocation bundleAllocation = checkoutEngine.checkoutWithBundles(Arrays.asList(DRINK, DRINK, SANDWICH), bundleSolver);
+
+        // Then
+        assertThat(bundleAllocation.getTotalInMinorUnits(), is(200L + 250L));
+        assertThat(bundleAllocation.getBundles().isEmpty(), is(true));
+    }
+
+    @Test
+    public void given_overlappingBundles_then_findTheCheapestAllocationWhereGreedyWouldNot(){
+        // Given
+        Bundle wrapAndDrink = new Bundle(Arrays.asList(ImmutableSet.of(WRAP), ImmutableSet.of(DRINK)), 3.0);
+        Bundle wrapAndCrisps = new Bundle(Arrays.asList(ImmutableSet.of(WRAP), ImmutableSet.of(CRISPS)), 3.0);
+        Bundle drinkAndCrisps = new Bundle(Arrays.asList(ImmutableSet.of(DRINK), ImmutableSet.of(CRISPS)), 0.5);
+        List<Bundle> bundles = Arrays.asList(wrapAndDrink, wrapAndCrisps, drinkAndCrisps);
+        List<Item> checkoutItems = Arrays.asList(WRAP, DRINK, CRISPS, WRAP);
+
+        // When
+        BundleAllocation optimal = checkoutEngine.checkoutWithBundles(checkoutItems, new BundleSolver(PRICING_CATALOG, bundles));
+        BundleAllocation greedy = checkoutEngine.checkoutWithBundles(checkoutItems, new BundleSolver(PRICING_CATALOG, bundles, 1));
+
+        // Then
+        assertThat(optimal.getTotalInMinorUnits(), is(600L));
+        assertThat(optimal.isOptimal(), is(true));
+        assertThat(greedy.getTotalInMinorUnits(), is(50L + 600L));
+        assertThat(greedy.isOptimal(), is(false));
+    }
+
+    @Test
+    public void given_manyOverlappingUnits_then_theSearchStaysWithinItsBudget(){
+        // Given
+        Bundle anyTwo = new Bundle(Arrays.asList(
+                ImmutableSet.of(SANDWICH, WRAP, DRINK, CRISPS), ImmutableSet.of(SANDWICH, WRAP, DRINK, CRISPS)), 3.0);
+        Bundle anyThree = new Bundle(Arrays.asList(
+                ImmutableSet.of(SANDWICH, WRAP, DRINK, CRISPS), ImmutableSet.of(SANDWICH, WRAP, DRINK, CRISPS),
+                ImmutableSet.of(SANDWICH, WRAP, DRINK, CRISPS)), 4.2);
+        BundleSolver bundleSolver = new BundleSolver(PRICING_CATALOG, Arrays.asList(anyTwo, anyThree), 50);
+        List<Item> checkoutItems = new ArrayList<>();
+        for (Item item : Arrays.asList(SANDWICH, WRAP, DRINK, CRISPS)) {
+            checkoutItems.addAll(Collections.nCopies(10, item));
+        }
+        long unbundledTotal = checkoutEngine.checkoutInMinorUnits(checkoutItems, PRICING_CATALOG);
+
+        // When
+        BundleAllocation bundleAllocation = checkoutEngine.checkoutWithBundles(checkoutItems, bundleSolver);
+
+        // Then
+        assertThat(bundleAllocation.isOptimal(), is(false));
+        assertThat(bundleAllocation.getTotalInMinorUnits() < unbundledTotal, is(true));
+    }
+
+    @Test
+    public void given_bundleWithAComponentMissingFromTheBasket_then_itIsNotSearchedAtAll(){
+        // Given
+        Map<Item, PricingRule> pricingRules = pricingRulesOfWideComponents(200);
+        Item missing = new Item("Missing");
+        pricingRules.put(missing, new PricingRule(missing, 1.0, 0, 0));
+        Bundle bundle = new Bundle(Arrays.asList(componentOf(0, 200), componentOf(200, 200), componentOf(400, 200),
+                Collections.singleton(missing)), 0.1);
+        BundleSolver bundleSolver = new BundleSolver(PricingCatalog.of(pricingRules), Collections.singletonList(bundle), 10);
+
+        // When
+        BundleAllocation bundleAllocation = checkoutEngine.checkoutWithBundles(itemsOf(0, 600), bundleSolver);
+
+        // Then
+        assertThat(bundleAllocation.getTotalInMinorUnits(), is(600 * 100L));
+        assertThat(bundleAllocation.getBundles().isEmpty(), is(true));
+        assertThat(bundleAllocation.isOptimal(), is(true));
+    }
+
+    @Test
+    public void given_partialFillingsThatDeadEnd_then_theyCountAgainstTheBudgetAndGreedyTakesOver(){
+        // Given
+        Map<Item, PricingRule> pricingRules = pricingRulesOfWideComponents(200);
+        Item scarce = new Item("Scarce");
+        pricingRules.put(scarce, new PricingRule(scarce, 1.0, 0, 0));
+        Bundle bundle = new Bundle(Arrays.asList(componentOf(0, 200), componentOf(200, 200), componentOf(400, 200),
+                Collections.singleton(scarce), Collections.singleton(scarce)), 0.1);
+        BundleSolver bundleSolver = new BundleSolver(PricingCatalog.of(pricingRules), Collections.singletonList(bundle), 10);
+        List<Item> checkoutItems = itemsOf(0, 600);
+        checkoutItems.add(scarce);
+
+        // When
+        BundleAllocation bundleAllocation = checkoutEngine.checkoutWithBundles(checkoutItems, bundleSolver);
+
+        // Then
+        assertThat(bundleAllocation.getTotalInMinorUnits(), is(601 * 100L));
+        assertThat(bundleAllocation.getBundles().isEmpty(), is(true));
+        assertThat(bundleAllocation.isOptimal(), is(false));
+    }
+
+    @Test
+    public void given_bundleOfAnItemWithoutPricingRule_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(UNPRICED_PROMOTION_ITEM));
+
+        // When
+        new BundleSolver(PRICING_CATALOG, Collections.singletonList(
+                new Bundle(Collections.singletonList(ImmutableSet.of(new Item("Whatever"))), 1.0)));
+    }
+
+    private static Map<Item, PricingRule> pricingRulesOfWideComponents(int skus) {
+        Map<Item, PricingRule> pricingRules = new HashMap<>();
+        for (Item item : itemsOf(0, 3 * skus)) {
+            pricingRules.put(item, new PricingRule(item, 1.0, 0, 0));
+        }
+        return pricingRules;
+    }
+
+    private static Set<Item> componentOf(int firstSku, int skus) {
+        return new HashSet<>(itemsOf(firstSku, skus));
+    }
+
+    private static List<Item> itemsOf(int firstSku, int skus) {
+        List<Item> items = new ArrayList<>(skus);
+        for (int sku = firstSku; sku < firstSku + skus; sku++) {
+            items.add(new Item("SKU-" + sku));
+        }
+        return items;
+    }
+}
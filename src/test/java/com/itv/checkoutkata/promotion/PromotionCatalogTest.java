@@ -0,0 +1,128 @@
+package com.itv.checkoutkata.promotion;
+
+import com.google.common.collect.ImmutableMap;
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.PricingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PROMOTION;
+import static com.itv.checkoutkata.ErrorMessages.UNPRICED_PROMOTION_ITEM;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PromotionCatalogTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+    private static final Item PEAR = new Item("Pear");
+
+    private static final PricingCatalog PRICING_CATALOG = PricingCatalog.of(ImmutableMap.of(
+            APPLE, new PricingRule(APPLE, 0.5, 1.3, 3),
+            BANANA, new PricingRule(BANANA, 0.3, 0, 0),
+            PEAR, new PricingRule(PEAR, 0.6, 0, 0)));
+
+    private final CheckoutEngine checkoutEngine = new CheckoutEngine();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_noPromotions_then_priceAsThePricingCatalogDoes(){
+        // Given
+        PromotionCatalog promotionCatalog = PromotionCatalog.of(PRICING_CATALOG, Collections.emptyList());
+        List<Item> checkoutItems = Arrays.asList(APPLE, APPLE, APPLE, APPLE, BANANA);
+
+        // When
+        long totalPrice = checkoutEngine.checkoutInMinorUnits(checkoutItems, promotionCatalog);
+
+        // Then
+        assertThat(totalPrice, is(checkoutEngine.checkoutInMinorUnits(checkoutItems, PRICING_CATALOG)));
+    }
+
+    @Test
+    public void given_percentageDiscount_then_takeItOffWhatThePricingRuleCharges(){
+        // Given
+        PromotionCatalog promotionCatalog = PromotionCatalog.of(PRICING_CATALOG,
+                Collections.singletonList(new PercentageDiscount(Arrays.asList(APPLE, PEAR), 10)));
+
+        // When
+        long totalPrice = checkoutEngine.checkoutInMinorUnits(Arrays.asList(APPLE, APPLE, APPLE, PEAR, BANANA), promotionCatalog);
+
+        // Then
+        assertThat(totalPrice, is(117L + 54L + 30L));
+    }
+
+    @Test
+    public void given_buyTwoGetOneFree_then_everyThirdUnitIsFree(){
+        // Given
+        PromotionCatalog promotionCatalog = PromotionCatalog.of(PRICING_CATALOG,
+                Collections.singletonList(new BuyXGetYFree(Collections.singleton(BANANA), 2, 1)));
+
+        // When
+        long totalPrice = checkoutEngine.checkoutInMinorUnits(Arrays.asList(BANANA, BANANA, BANANA, BANANA), promotionCatalog);
+
+        // Then
+        assertThat(totalPrice, is(90L));
+    }
+
+    @Test
+    public void given_overlappingPromotions_then_theCheapestOneWins(){
+        // Given
+        PromotionCatalog promotionCatalog = PromotionCatalog.of(PRICING_CATALOG, Arrays.asList(
+                new PercentageDiscount(Collections.singleton(PEAR), 10),
+                new BuyXGetYFree(Collections.singleton(PEAR), 1, 1)));
+
+        // Then
+        assertThat(checkoutEngine.checkoutInMinorUnits(Collections.singletonList(PEAR), promotionCatalog), is(54L));
+        assertThat(checkoutEngine.checkoutInMinorUnits(Arrays.asList(PEAR, PEAR), promotionCatalog), is(60L));
+    }
+
+    @Test
+    public void given_manyPromotions_then_onlyThoseOnAnItemAreIndexedUnderIt(){
+        // Given
+        List<Promotion> promotions = new ArrayList<>();
+        for (int percentOff = 1; percentOff <= 50; percentOff++) {
+            promotions.add(new PercentageDiscount(Collections.singleton(APPLE), percentOff));
+        }
+        promotions.add(new BuyXGetYFree(Collections.singleton(BANANA), 3, 1));
+
+        // When
+        PromotionCatalog promotionCatalog = PromotionCatalog.of(PRICING_CATALOG, promotions);
+
+        // Then
+        assertThat(promotionCatalog.size(), is(51));
+        assertThat(promotionCatalog.promotionsFor(APPLE).size(), is(50));
+        assertThat(promotionCatalog.promotionsFor(BANANA).size(), is(1));
+        assertThat(promotionCatalog.promotionsFor(PEAR).isEmpty(), is(true));
+    }
+
+    @Test
+    public void given_promotionOnAnItemWithoutPricingRule_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(UNPRICED_PROMOTION_ITEM));
+
+        // When
+        PromotionCatalog.of(PRICING_CATALOG, Collections.singletonList(new PercentageDiscount(Collections.singleton(new Item("Whatever")), 10)));
+    }
+
+    @Test
+    public void given_percentageOverAHundred_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INVALID_PROMOTION));
+
+        // When
+        new PercentageDiscount(Collections.singleton(APPLE), 101);
+    }
+}
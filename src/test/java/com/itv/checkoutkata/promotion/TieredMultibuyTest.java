@@ -0,0 +1,88 @@
+package com.itv.checkoutkata.promotion;
+
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_PROMOTION;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class TieredMultibuyTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final PricingRule APPLE_RULE = new PricingRule(APPLE, 0.4, 0, 0);
+
+    private final TieredMultibuy fourForOneTenForTwoForty = new TieredMultibuy(Collections.singleton(APPLE),
+            Arrays.asList(new TieredMultibuy.Tier(4, 1.0), new TieredMultibuy.Tier(10, 2.4)));
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_quantityBelowEveryTier_then_payUnitPrices(){
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 3), is(120L));
+    }
+
+    @Test
+    public void given_quantityMatchingATier_then_payTheTierPrice(){
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 4), is(100L));
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 10), is(240L));
+    }
+
+    @Test
+    public void given_quantitySpanningTiers_then_payTheCheapestCombination(){
+        // 12 is cheaper as three lots of 4 than as the biggest tier plus two singles
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 12), is(300L));
+        // 14 is 10 + 4
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 14), is(340L));
+        // 11 is 10 + 1
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 11), is(280L));
+    }
+
+    @Test
+    public void given_quantityPastTheSearchedBound_then_theRestIsPricedAsTheCheapestTier(){
+        // 10 for 2.40 is the cheapest per unit, so every further 10 adds 2.40
+        long priceOfEleven = fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 11);
+
+        assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, 100_000_011), is(priceOfEleven + 10_000_000 * 240L));
+        for (int quantity = 0; quantity <= 300; quantity++) {
+            assertThat(fourForOneTenForTwoForty.priceInMinorUnits(APPLE_RULE, quantity), is(searchedPriceOf(quantity)));
+        }
+    }
+
+    @Test
+    public void given_tierInMinorUnits_then_itIsPricedExactly(){
+        TieredMultibuy threeForNinetyNine = new TieredMultibuy(Collections.singleton(APPLE),
+                Collections.singletonList(TieredMultibuy.Tier.ofMinorUnits(3, 99)));
+
+        assertThat(threeForNinetyNine.priceInMinorUnits(APPLE_RULE, 7), is(99L + 99L + 40L));
+    }
+
+    @Test
+    public void given_noTiers_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INVALID_PROMOTION));
+
+        // When
+        new TieredMultibuy(Collections.singleton(APPLE), Collections.emptyList());
+    }
+
+    // every split of the quantity into tiers and single units, searched exhaustively
+    private static long searchedPriceOf(int quantity) {
+        long cheapestPrice = quantity * 40L;
+        for (int tens = 0; tens * 10 <= quantity; tens++) {
+            for (int fours = 0; tens * 10 + fours * 4 <= quantity; fours++) {
+                cheapestPrice = Math.min(cheapestPrice, tens * 240L + fours * 100L + (quantity - tens * 10 - fours * 4) * 40L);
+            }
+        }
+        return cheapestPrice;
+    }
+}
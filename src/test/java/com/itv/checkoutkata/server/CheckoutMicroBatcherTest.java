@@ -0,0 +1,172 @@
+package com.itv.checkoutkata.server;
+
+import com.google.common.collect.ImmutableMap;
+import com.itv.checkoutkata.CheckoutResult;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalogHolder;
+import com.itv.checkoutkata.PricingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.itv.checkoutkata.ErrorMessages.INVALID_MICRO_BATCH_SETTINGS;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
+import static com.itv.checkoutkata.ErrorMessages.PRICING_QUEUE_FULL;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class CheckoutMicroBatcherTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+
+    private final PricingCatalogHolder pricingCatalogHolder = new PricingCatalogHolder(ImmutableMap.of(
+            APPLE, new PricingRule(APPLE, 0.5, 1.3, 3),
+            BANANA, new PricingRule(BANANA, 0.3, 0, 0)));
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_queuedCheckouts_when_started_then_everyOneIsPricedAgainstOneSnapshot() throws Exception {
+        // Given
+        try (CheckoutMicroBatcher checkoutMicroBatcher = new CheckoutMicroBatcher(pricingCatalogHolder,
+                new MicroBatchSettings(100, Duration.ofMillis(50), 100))) {
+            List<CompletableFuture<CheckoutResult>> checkoutResults = new ArrayList<>();
+            for (int checkout = 0; checkout < 20; checkout++) {
+                checkoutResults.add(checkoutMicroBatcher.submit(Arrays.asList(APPLE, APPLE, APPLE, BANANA)));
+            }
+
+            // When
+            checkoutMicroBatcher.start();
+
+            // Then
+            long catalogVersion = pricingCatalogHolder.current().getVersion();
+            for (CompletableFuture<CheckoutResult> checkoutResult : checkoutResults) {
+                assertThat(checkoutResult.get(5, TimeUnit.SECONDS).getTotalInMinorUnits(), is(160L));
+                assertThat(checkoutResult.get().getCatalogVersion(), is(catalogVersion));
+            }
+        }
+    }
+
+    @Test
+    public void given_fullQueue_when_submitting_then_rejectAtOnce() throws Exception {
+        // Given
+        try (CheckoutMicroBatcher checkoutMicroBatcher = new CheckoutMicroBatcher(pricingCatalogHolder,
+                new MicroBatchSettings(10, Duration.ofMillis(1), 2))) {
+            checkoutMicroBatcher.submit(Collections.singletonList(APPLE));
+            checkoutMicroBatcher.submit(Collections.singletonList(APPLE));
+
+            // Then
+            expectedException.expect(IllegalStateException.class);
+            expectedException.expectMessage(PRICING_QUEUE_FULL);
+
+            // When
+            checkoutMicroBatcher.submit(Collections.singletonList(APPLE));
+        }
+    }
+
+    @Test
+    public void given_basketThatCanNotBePriced_then_onlyItsCheckoutFails() throws Exception {
+        // Given
+        try (CheckoutMicroBatcher checkoutMicroBatcher = new CheckoutMicroBatcher(pricingCatalogHolder, MicroBatchSettings.DEFAULTS)) {
+            CompletableFuture<CheckoutResult> unpriceable = checkoutMicroBatcher.submit(Collections.singletonList(new Item("Whatever")));
+            CompletableFuture<CheckoutResult> priceable = checkoutMicroBatcher.submit(Collections.singletonList(BANANA));
+
+            // When
+            checkoutMicroBatcher.start();
+
+            // Then
+            assertThat(priceable.get(5, TimeUnit.SECONDS).getTotalInMinorUnits(), is(30L));
+            try {
+                unpriceable.get(5, TimeUnit.SECONDS);
+            } catch (ExecutionException failure) {
+                assertThat(failure.getCause(), instanceOf(IllegalStateException.class));
+                assertThat(failure.getCause().getMessage(), containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+            }
+            assertThat(unpriceable.isCompletedExceptionally(), is(true));
+        }
+    }
+
+    @Test
+    public void given_checkoutsSubmittedWhileClosing_then_everyAcceptedOneIsAnswered() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            // Given
+            CheckoutMicroBatcher checkoutMicroBatcher = new CheckoutMicroBatcher(pricingCatalogHolder, MicroBatchSettings.DEFAULTS);
+            checkoutMicroBatcher.start();
+            List<CompletableFuture<CheckoutResult>> accepted = Collections.synchronizedList(new ArrayList<>());
+            Thread till = new Thread(() -> {
+                try {
+                    while (true) {
+                        accepted.add(checkoutMicroBatcher.submit(Collections.singletonList(APPLE)));
+                    }
+                } catch (IllegalStateException stoppedOrFull) {
+                    // the till gives up on the first rejection
+                }
+            });
+            till.start();
+
+            // When
+            checkoutMicroBatcher.close();
+            till.join();
+
+            // Then
+            for (CompletableFuture<CheckoutResult> checkoutResult : accepted) {
+                assertThat(checkoutResult.isDone(), is(true));
+            }
+        }
+    }
+
+    @Test
+    public void given_batchThePoolRejects_then_itsCheckoutsFailAndTheDispatcherCarriesOn() throws Exception {
+        // Given
+        ForkJoinPool shutDownPool = new ForkJoinPool(1);
+        shutDownPool.shutdown();
+
+        try (CheckoutMicroBatcher checkoutMicroBatcher = new CheckoutMicroBatcher(pricingCatalogHolder,
+                new MicroBatchSettings(10, Duration.ofMillis(50), 10), shutDownPool)) {
+            List<CompletableFuture<CheckoutResult>> rejected = Arrays.asList(
+                    checkoutMicroBatcher.submit(Collections.singletonList(APPLE)),
+                    checkoutMicroBatcher.submit(Collections.singletonList(BANANA)));
+
+            // When
+            checkoutMicroBatcher.start();
+
+            // Then
+            for (CompletableFuture<CheckoutResult> checkoutResult : rejected) {
+                try {
+                    checkoutResult.get(5, TimeUnit.SECONDS);
+                    fail();
+                } catch (ExecutionException failure) {
+                    assertThat(failure.getCause(), instanceOf(RejectedExecutionException.class));
+                }
+            }
+            // a batch of one is priced without the pool
+            assertThat(checkoutMicroBatcher.submit(Collections.singletonList(BANANA)).get(5, TimeUnit.SECONDS).getTotalInMinorUnits(), is(30L));
+        }
+    }
+
+    @Test
+    public void given_zeroBatchSize_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(INVALID_MICRO_BATCH_SETTINGS));
+
+        // When
+        new MicroBatchSettings(0, Duration.ofMillis(1), 1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.itv.checkoutkata.server;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalogHolder;
+import com.itv.checkoutkata.PricingRule;
+import com.itv.checkoutkata.validation.UnpricedItemsException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PricingServerTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+
+    private PricingCatalogHolder pricingCatalogHolder;
+    private PricingServer pricingServer;
+
+    @Before
+    public void startServer() throws IOException {
+        pricingCatalogHolder = new PricingCatalogHolder(ImmutableMap.of(
+                APPLE, new PricingRule(APPLE, 0.5, 1.3, 3),
+                BANANA, new PricingRule(BANANA, 0.3, 0, 0)));
+        pricingServer = new PricingServer(new InetSocketAddress("localhost", 0), pricingCatalogHolder, MicroBatchSettings.DEFAULTS, 4);
+        pricingServer.start();
+    }
+
+    @After
+    public void stopServer() throws InterruptedException {
+        pricingServer.close();
+    }
+
+    @Test
+    public void given_basketPosted_then_answerItsTotalAndCatalogVersion() throws IOException {
+        // When
+        HttpURLConnection connection = post("Apple\nApple\nBanana\nApple\n");
+
+        // Then
+        assertThat(connection.getResponseCode(), is(200));
+        assertThat(bodyOf(connection.getInputStream()),
+                is("{\"totalInMinorUnits\":160,\"catalogVersion\":" + pricingCatalogHolder.current().getVersion() + "}"));
+    }
+
+    @Test
+    public void given_basketWithAnUnpricedItem_then_answerBadRequest() throws IOException {
+        // When
+        HttpURLConnection connection = post("Apple\nWhatever\n");
+
+        // Then
+        assertThat(connection.getResponseCode(), is(400));
+        assertThat(bodyOf(connection.getErrorStream()), containsString("Missing pricing rules"));
+    }
+
+    @Test
+    public void given_emptyBasket_then_answerBadRequest() throws IOException {
+        assertThat(post("").getResponseCode(), is(400));
+    }
+
+    @Test
+    public void given_failures_then_onlyValidationFailuresAreBadRequestsAndTemporaryOnesAreUnavailable() {
+        assertThat(PricingServer.statusOf(new IllegalArgumentException()), is(400));
+        assertThat(PricingServer.statusOf(new UnpricedItemsException(Collections.singletonList(APPLE))), is(400));
+        assertThat(PricingServer.statusOf(new PricingQueueFullException()), is(503));
+        assertThat(PricingServer.statusOf(new PricingServiceStoppedException()), is(503));
+        assertThat(PricingServer.statusOf(new TimeoutException()), is(503));
+        assertThat(PricingServer.statusOf(new NullPointerException()), is(500));
+        assertThat(PricingServer.statusOf(new IllegalStateException()), is(500));
+    }
+
+    private HttpURLConnection post(String basket) throws IOException {
+        URL url = new URL("http://localhost:" + pricingServer.getPort() + PricingServer.CHECKOUT_PATH);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream requestBody = connection.getOutputStream()) {
+            requestBody.write(basket.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    private static String bodyOf(InputStream body) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return CharStreams.toString(reader);
+        }
+    }
+}
@@ -14,6 +14,8 @@ import java.util.Map;
 
 import static com.itv.checkoutkata.ErrorMessages.MISSING_CHECKOUT_ITEMS;
 import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static com.itv.checkoutkata.ErrorMessages.NON_POSITIVE_CHECKOUT_QUANTITIES;
+import static com.itv.checkoutkata.ErrorMessages.NO_PRICING_RULES_FOR_CHECKOUT_ITEMS;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -95,8 +97,34 @@ public class CheckoutValidatorTest {
         checkoutValidator.validateMatchingRulesForEveryItem(CHECKOUT_ITEMS, NON_MATCHING_PRICING_RULES);
     }
 
+    @Test
+    public void given_pricingRulesNotMatchingEveryCheckoutItem_then_everyUnpricedItemIsReported(){
+        // Then
+        expectedException.expect(UnpricedItemsException.class);
+        expectedException.expectMessage(containsString(NO_PRICING_RULES_FOR_CHECKOUT_ITEMS));
+        expectedException.expectMessage(containsString(CHECKOUT_ITEMS.toString()));
+
+        // When
+        checkoutValidator.validateMatchingRulesForEveryItem(CHECKOUT_ITEMS, NON_MATCHING_PRICING_RULES);
+    }
+
     @Test
     public void given_pricingRulesForEveryCheckoutItem_then_noExceptionsAreThrown(){
         checkoutValidator.validateMatchingRulesForEveryItem(CHECKOUT_ITEMS, PRICING_RULES);
     }
+
+    @Test
+    public void given_nonPositiveCheckoutQuantity_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(containsString(NON_POSITIVE_CHECKOUT_QUANTITIES));
+
+        // When
+        checkoutValidator.validateQuantities(Collections.singletonMap(new Item("A"), -1), PRICING_RULES);
+    }
+
+    @Test
+    public void given_validQuantities_then_noExceptionsAreThrown(){
+        checkoutValidator.validateQuantities(Collections.singletonMap(new Item("A"), 2), PRICING_RULES);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.itv.checkoutkata.whatif;
+
+import com.google.common.collect.ImmutableMap;
+import com.itv.checkoutkata.CheckoutEngine;
+import com.itv.checkoutkata.Item;
+import com.itv.checkoutkata.PricingCatalog;
+import com.itv.checkoutkata.PricingRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.itv.checkoutkata.ErrorMessages.MISSING_PRICING_RULES;
+import static com.itv.checkoutkata.ErrorMessages.NON_POSITIVE_CHECKOUT_QUANTITIES;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class WhatIfRepricerTest {
+
+    private static final Item APPLE = new Item("Apple");
+    private static final Item BANANA = new Item("Banana");
+    private static final Item CHERRY = new Item("Cherry");
+
+    private final WhatIfRepricer whatIfRepricer = new WhatIfRepricer();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Test
+    public void given_historicalBaskets_then_repriceToTheSameTotalsAsCheckingThemOutOneByOne(){
+        // Given
+        List<List<Item>> baskets = Arrays.asList(
+                Arrays.asList(APPLE, APPLE, BANANA),
+                Arrays.asList(APPLE, APPLE, APPLE, BANANA, APPLE),
+                Arrays.asList(BANANA, BANANA, BANANA, BANANA, BANANA),
+                Collections.singletonList(APPLE));
+        Map<Item, PricingRule> currentRules = ImmutableMap.of(
+                APPLE, new PricingRule(APPLE, 0.5, 1.3, 3),
+                BANANA, new PricingRule(BANANA, 0.3, 0, 0));
+        Map<Item, PricingRule> candidateRules = ImmutableMap.of(
+                APPLE, new PricingRule(APPLE, 0.45, 0.8, 2),
+                BANANA, new PricingRule(BANANA, 0.35, 1.0, 4));
+
+        HistoricalBaskets.Builder builder = HistoricalBaskets.builder();
+        baskets.forEach(builder::basket);
+        HistoricalBaskets historicalBaskets = builder.build();
+
+        // When
+        List<WhatIfReport> whatIfReports = whatIfRepricer.reprice(historicalBaskets,
+                Arrays.asList(PricingCatalog.of(currentRules), PricingCatalog.of(candidateRules)));
+
+        // Then
+        assertThat(historicalBaskets.baskets(), is(4L));
+        assertThat(whatIfReports.size(), is(2));
+        assertThat(whatIfReports.get(0).getTotalInMinorUnits(), is(checkoutOneByOne(baskets, currentRules)));
+        assertThat(whatIfReports.get(1).getTotalInMinorUnits(), is(checkoutOneByOne(baskets, candidateRules)));
+    }
+
+    @Test
+    public void given_manyDistinctQuantitiesOfOneSku_then_everyBasketIsCountedUnderItsQuantity(){
+        // Given
+        HistoricalBaskets.Builder builder = HistoricalBaskets.builder();
+        for (int quantity = 100; quantity >= 1; quantity--) {
+            builder.basket(ImmutableMap.of(APPLE, quantity)).basket(ImmutableMap.of(APPLE, quantity));
+        }
+
+        // When
+        HistoricalBaskets historicalBaskets = builder.build();
+
+        // Then
+        int[] quantities = historicalBaskets.quantitiesAt(0);
+        assertThat(quantities.length, is(100));
+        for (int index = 0; index < quantities.length; index++) {
+            assertThat(quantities[index], is(index + 1));
+            assertThat(historicalBaskets.basketCountsAt(0)[index], is(2L));
+        }
+    }
+
+    @Test
+    public void given_historicalBaskets_then_reportRevenuePerItem(){
+        // Given
+        HistoricalBaskets historicalBaskets = HistoricalBaskets.builder()
+                .basket(ImmutableMap.of(APPLE, 3, BANANA, 1))
+                .basket(ImmutableMap.of(APPLE, 3))
+                .basket(ImmutableMap.of(APPLE, 4))
+                .build();
+        PricingCatalog candidateCatalog = PricingCatalog.of(ImmutableMap.of(
+                APPLE, new PricingRule(APPLE, 0.5, 1.3, 3),
+                BANANA, new PricingRule(BANANA, 0.3, 0, 0)));
+
+        // When
+        WhatIfReport whatIfReport = whatIfRepricer.reprice(historicalBaskets, candidateCatalog);
+
+        // Then
+        assertThat(whatIfReport.revenueInMinorUnitsOf(APPLE), is(130L + 130L + 180L));
+        assertThat(whatIfReport.revenueInMinorUnitsOf(BANANA), is(30L));
+        assertThat(whatIfReport.getTotalInMinorUnits(), is(470L));
+        assertThat(whatIfReport.getCatalogVersion(), is(candidateCatalog.getVersion()));
+        assertThat(whatIfReport.getUnpricedItems().isEmpty(), is(true));
+    }
+
+    @Test
+    public void given_itemsTheCandidateCatalogDoesNotPrice_then_reportThemAsUnpriced(){
+        // Given
+        HistoricalBaskets historicalBaskets = HistoricalBaskets.builder()
+                .basket(Arrays.asList(APPLE, CHERRY))
+                .build();
+        PricingCatalog candidateCatalog = PricingCatalog.of(ImmutableMap.of(APPLE, new PricingRule(APPLE, 0.5, 0, 0)));
+
+        // When
+        WhatIfReport whatIfReport = whatIfRepricer.reprice(historicalBaskets, candidateCatalog);
+
+        // Then
+        assertThat(whatIfReport.getTotalInMinorUnits(), is(50L));
+        assertThat(whatIfReport.getUnpricedItems(), is(Collections.singleton(CHERRY)));
+        assertThat(whatIfReport.revenueInMinorUnitsOf(CHERRY), is(0L));
+    }
+
+    @Test
+    public void given_noCandidateCatalogs_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(MISSING_PRICING_RULES);
+
+        // When
+        whatIfRepricer.reprice(HistoricalBaskets.builder().build(), Collections.emptyList());
+    }
+
+    @Test
+    public void given_nonPositiveHistoricalQuantity_then_explode(){
+        // Then
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(NON_POSITIVE_CHECKOUT_QUANTITIES);
+
+        // When
+        HistoricalBaskets.builder().basket(ImmutableMap.of(APPLE, 0));
+    }
+
+    @Test
+    public void given_basketWithANonPositiveQuantity_when_rejected_then_noneOfItsItemsAreCounted(){
+        // Given
+        HistoricalBaskets.Builder builder = HistoricalBaskets.builder().basket(ImmutableMap.of(APPLE, 2));
+
+        try {
+            // When
+            builder.basket(ImmutableMap.of(APPLE, 1, BANANA, 3, CHERRY, -1));
+            fail();
+        } catch (IllegalArgumentException illegalArgumentException) {
+            // Then
+            assertThat(illegalArgumentException.getMessage(), is(NON_POSITIVE_CHECKOUT_QUANTITIES));
+        }
+
+        HistoricalBaskets historicalBaskets = builder.build();
+        assertThat(historicalBaskets.baskets(), is(1L));
+        assertThat(historicalBaskets.skus(), is(1));
+        assertThat(historicalBaskets.quantitiesAt(0), is(new int[]{2}));
+        assertThat(historicalBaskets.basketCountsAt(0), is(new long[]{1}));
+    }
+
+    private static long checkoutOneByOne(List<List<Item>> baskets, Map<Item, PricingRule> pricingRules) {
+        CheckoutEngine checkoutEngine = new CheckoutEngine();
+        return baskets.stream().mapToLong(basket -> checkoutEngine.checkoutInMinorUnits(basket, pricingRules)).sum();
+    }
+}